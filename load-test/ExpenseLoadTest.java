@@ -0,0 +1,112 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Prueba de carga contra una instancia levantada de la API. Cada cliente simultáneo es un request en vuelo:
+// apenas termina uno se lanza el siguiente, rotando entre los endpoints de lectura.
+// Se ejecuta como archivo fuente, sin compilar (Java 11+):
+//   java load-test/ExpenseLoadTest.java <baseUrl> <clientes> <segundos> [gastos a sembrar]
+//   java load-test/ExpenseLoadTest.java http://localhost:8080 1000 30 10000
+public class ExpenseLoadTest {
+    private static final String[] PATHS = {
+            "/api/v1/expense?limit=50",
+            "/api/v1/expense/sum-by-month?year=2023&month=3",
+            "/api/v1/expense/total-sum",
+            "/api/v1/expense/categories",
+            "/api/v1/expense/category/comida?from=01/01/2023&to=31/12/2023"
+    };
+    private static final String[] CATEGORIES = {"comida", "transporte", "servicios", "salud", "ocio"};
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int seed = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        if (seed > 0) {
+            seed(client, baseUrl, seed);
+        }
+
+        List<HttpRequest> requests = new ArrayList<>();
+        for (String path : PATHS) {
+            requests.add(HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(60)).GET().build());
+        }
+
+        Semaphore inFlight = new Semaphore(clients);
+        AtomicLong ok = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+
+        long warmupEnd = System.nanoTime() + Duration.ofSeconds(Math.min(10, seconds / 3)).toNanos();
+        long end = warmupEnd + Duration.ofSeconds(seconds).toNanos();
+        long sent = 0;
+        while (System.nanoTime() < end) {
+            inFlight.acquire();
+            HttpRequest request = requests.get((int) (sent++ % requests.size()));
+            long start = System.nanoTime();
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                long finished = System.nanoTime();
+                inFlight.release();
+                // Lo que termina durante el calentamiento no se cuenta
+                if (start < warmupEnd || finished > end) {
+                    return;
+                }
+                if (error == null && response.statusCode() < 400) {
+                    ok.incrementAndGet();
+                    latencies.add(finished - start);
+                } else {
+                    errors.incrementAndGet();
+                }
+            });
+        }
+        inFlight.acquire(clients);
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        System.out.printf("clientes=%d duración=%ds ok=%d errores=%d throughput=%.0f req/s p50=%.1fms p99=%.1fms max=%.1fms%n",
+                clients, seconds, ok.get(), errors.get(), ok.get() / (double) seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0));
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    // Carga gastos repartidos en 2023 con POST /batch, de a 500 por request
+    private static void seed(HttpClient client, String baseUrl, int count) throws Exception {
+        for (int from = 0; from < count; from += 500) {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = from; i < Math.min(from + 500, count); i++) {
+                if (i > from) {
+                    body.append(',');
+                }
+                body.append(String.format("{\"amount\":%d.5,\"categoryDto\":{\"name\":\"%s\"},\"date\":\"%02d/%02d/2023\"}",
+                        i % 1000, CATEGORIES[i % CATEGORIES.length], i % 28 + 1, i % 12 + 1));
+            }
+            body.append(']');
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/expense/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 201) {
+                throw new IllegalStateException("No se pudo sembrar: " + response.statusCode() + " " + response.body());
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.soyhenry.expenseapp.config;
+
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.Executors;
+
+// Con el perfil virtual-threads cada request corre en su propio hilo virtual, incluidas las llamadas JDBC
+// de los repositorios: mientras esperan a la BD no ocupan un hilo de plataforma.
+// Sólo se compila con el perfil de Maven virtual-threads (Java 21)
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsConfig {
+
+    // Reemplaza el pool de hilos de Tomcat por un hilo virtual por request
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    // Executor de los requests asíncronos de MVC, como la exportación con StreamingResponseBody
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
@@ -0,0 +1,83 @@
+package com.soyhenry.expenseapp.analytics;
+
+import com.soyhenry.expenseapp.benchmark.BenchmarkDatabase;
+import com.soyhenry.expenseapp.domain.ExpenseBucketSum;
+import com.soyhenry.expenseapp.tenant.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Sumas por rango y series diarias de un año: copia columnar en memoria contra la consulta a la BD.
+// El rango se corre un día en cada llamada para que H2 no responda desde su caché de resultados
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx12g"})
+public class ExpenseAnalyticsSnapshotBenchmark {
+    private static final LocalDate FROM = LocalDate.of(2023, 1, 1);
+
+    @Param({"10000", "1000000", "10000000"})
+    private int rows;
+
+    private BenchmarkDatabase database;
+    private ExpenseColumns.View view;
+    private int shift;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new BenchmarkDatabase(rows);
+        ExpenseAnalyticsSnapshot snapshot = new ExpenseAnalyticsSnapshot(database.getJdbcTemplate(), true, 1000, 0, new SimpleMeterRegistry());
+        snapshot.load();
+        view = snapshot.view(TenantContext.DEFAULT_TENANT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public long snapshotSum() {
+        LocalDate from = nextFrom();
+        return view.sum((int) from.toEpochDay(), (int) from.plusYears(1).toEpochDay() - 1);
+    }
+
+    @Benchmark
+    public List<ExpenseBucketSum> snapshotSumsByDay() {
+        LocalDate from = nextFrom();
+        return view.sumsByDay((int) from.toEpochDay(), (int) from.plusYears(1).toEpochDay() - 1, true);
+    }
+
+    @Benchmark
+    public long databaseSum() {
+        LocalDate from = nextFrom();
+        return database.getExpenseRepository().selectExpenseSum(from, from.plusYears(1).minusDays(1));
+    }
+
+    @Benchmark
+    public List<ExpenseBucketSum> databaseSumsByDay() {
+        LocalDate from = nextFrom();
+        return database.getExpenseRepository().selectExpenseSumsByDay(from, from.plusYears(1).minusDays(1), true);
+    }
+
+    private LocalDate nextFrom() {
+        return FROM.plusDays(shift++ % 365);
+    }
+}
@@ -0,0 +1,77 @@
+package com.soyhenry.expenseapp.analytics;
+
+import com.soyhenry.expenseapp.domain.ExpenseBucketSum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Sumas de un año sobre la copia analítica según la cantidad de hilos, para ver cómo escala con los núcleos.
+// Las columnas se cargan directamente, sin BD, con los mismos montos, días y categorías que BenchmarkDatabase
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class ExpenseColumnAggregatorBenchmark {
+    private static final LocalDate LAST_DAY = LocalDate.of(2024, 12, 31);
+    private static final int CATEGORY_COUNT = 30;
+
+    @Param({"10000000"})
+    private int rows;
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    private ExpenseColumns.View view;
+    private ExpenseColumnAggregator aggregator;
+    private int fromDay;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ExpenseColumns columns = new ExpenseColumns();
+        int lastDay = (int) LAST_DAY.toEpochDay();
+        for (int x = 1; x <= rows; x++) {
+            int category = x % CATEGORY_COUNT + 1;
+            columns.load(x % 1000 * 100 + 25L, lastDay - x % 3650, category, "categoria-" + category);
+        }
+        columns.publish();
+        view = columns.view();
+        aggregator = new ExpenseColumnAggregator(parallelism, ExpenseColumnAggregator.MIN_ROWS_PER_TASK);
+        fromDay = (int) LAST_DAY.minusYears(1).plusDays(1).toEpochDay();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        aggregator.close();
+    }
+
+    @Benchmark
+    public long sum() {
+        return aggregator.sum(view, fromDay, fromDay + 364);
+    }
+
+    @Benchmark
+    public long[] sumByCategory() {
+        return aggregator.sumByCategory(view, 7L, fromDay, fromDay + 364);
+    }
+
+    @Benchmark
+    public List<ExpenseBucketSum> sumsByDay() {
+        return aggregator.sumsByDay(view, fromDay, fromDay + 364, true);
+    }
+}
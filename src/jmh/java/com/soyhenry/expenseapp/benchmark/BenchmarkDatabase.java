@@ -0,0 +1,70 @@
+package com.soyhenry.expenseapp.benchmark;
+
+import com.soyhenry.expenseapp.analytics.ExpenseAnalyticsSnapshot;
+import com.soyhenry.expenseapp.cache.ExpenseCategoryCache;
+import com.soyhenry.expenseapp.cache.ExpenseDataVersions;
+import com.soyhenry.expenseapp.cache.MonthlyExpenseSumCache;
+import com.soyhenry.expenseapp.repository.ExpenseRepository;
+import com.soyhenry.expenseapp.repository.impl.ExpenseCategoryRepositoryImpl;
+import com.soyhenry.expenseapp.repository.impl.ExpenseRepositoryImpl;
+import com.soyhenry.expenseapp.repository.impl.ExpenseRollupRepositoryImpl;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+// Base H2 en memoria con el esquema de la aplicación y una cantidad fija de gastos, para los benchmarks.
+// Los repositorios se arman a mano, sin contexto de Spring, así que cada sentencia corre en autocommit
+public class BenchmarkDatabase implements AutoCloseable {
+    public static final int CATEGORY_COUNT = 30;
+
+    private static final String SEED_CATEGORIES =
+            "INSERT INTO ExpenseCategory (name) SELECT 'categoria-' || X FROM SYSTEM_RANGE(1, " + CATEGORY_COUNT + ")";
+    // Montos y fechas repartidos en los últimos 10 años y categorías asignadas en forma circular
+    private static final String SEED_EXPENSES =
+            "INSERT INTO Expense (amount_cents, category_id, category_name, date) " +
+            "SELECT MOD(X, 1000) * 100 + 25, MOD(X, " + CATEGORY_COUNT + ") + 1, 'categoria-' || (MOD(X, " + CATEGORY_COUNT + ") + 1), " +
+            "DATEADD(DAY, -MOD(X, 3650), DATE '2024-12-31') FROM SYSTEM_RANGE(1, ?)";
+
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ExpenseRollupRepositoryImpl expenseRollupRepository;
+    private final ExpenseRepositoryImpl expenseRepository;
+
+    public BenchmarkDatabase(int rows) {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:benchmark-" + rows + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update(SEED_CATEGORIES);
+        jdbcTemplate.update(SEED_EXPENSES, rows);
+
+        ExpenseCategoryCache expenseCategoryCache = new ExpenseCategoryCache(1000, 1000, new ExpenseDataVersions(
+                new MonthlyExpenseSumCache(1200, Duration.ofHours(1), new SimpleMeterRegistry())), new SimpleMeterRegistry());
+        ExpenseCategoryRepositoryImpl expenseCategoryRepository = new ExpenseCategoryRepositoryImpl(jdbcTemplate, expenseCategoryCache);
+        expenseCategoryRepository.warmCategoryCache();
+        // Sin contexto de Spring nadie escucha los avisos de cambios, así que se descartan
+        expenseRollupRepository = new ExpenseRollupRepositoryImpl(jdbcTemplate, event -> { });
+        expenseRollupRepository.rebuild();
+        // La copia analítica queda desactivada: los benchmarks de repositorio miden las consultas a la BD
+        expenseRepository = new ExpenseRepositoryImpl(jdbcTemplate, expenseRollupRepository, expenseCategoryRepository, 1000,
+                new SimpleMeterRegistry(), event -> { }, new ExpenseAnalyticsSnapshot(jdbcTemplate, false, 1000, 0, new SimpleMeterRegistry()));
+    }
+
+    public JdbcTemplate getJdbcTemplate() {
+        return jdbcTemplate;
+    }
+
+    public ExpenseRepository getExpenseRepository() {
+        return expenseRepository;
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+}
@@ -0,0 +1,96 @@
+package com.soyhenry.expenseapp.benchmark;
+
+import com.soyhenry.expenseapp.domain.Expense;
+import com.soyhenry.expenseapp.domain.ExpenseFilter;
+import com.soyhenry.expenseapp.domain.ExpenseRow;
+import com.soyhenry.expenseapp.dto.response.MonthlyExpenseSumResponseDto;
+import com.soyhenry.expenseapp.repository.ExpenseRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Caminos de lectura y escritura de ExpenseRepositoryImpl contra una base sembrada con rows gastos
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx12g"})
+public class ExpenseRepositoryBenchmark {
+    private static final int BATCH_SIZE = 500;
+
+    @Param({"10000", "1000000", "10000000"})
+    private int rows;
+
+    private BenchmarkDatabase database;
+    private ExpenseRepository expenseRepository;
+    private long inserted;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new BenchmarkDatabase(rows);
+        expenseRepository = database.getExpenseRepository();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public Integer insertExpense() {
+        // La categoría ya está en el registro en memoria, como en el caso habitual de la API
+        String category = "categoria-" + (inserted++ % BenchmarkDatabase.CATEGORY_COUNT + 1);
+        return expenseRepository.insertExpense(new Expense(12550, null, category, LocalDate.of(2024, 6, 15)));
+    }
+
+    // Mismo alta que insertExpense pero por lotes como POST /batch; el resultado se informa por gasto
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int insertExpenses() {
+        List<Expense> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            String category = "categoria-" + (inserted++ % BenchmarkDatabase.CATEGORY_COUNT + 1);
+            batch.add(new Expense(12550, null, category, LocalDate.of(2024, 6, 15)));
+        }
+        return expenseRepository.insertExpenses(batch);
+    }
+
+    @Benchmark
+    public MonthlyExpenseSumResponseDto selectExpenseSumByMonth() {
+        return expenseRepository.selectExpenseSumByMonth(2023, 3);
+    }
+
+    @Benchmark
+    public List<ExpenseRow> selectExpensePage() {
+        ExpenseFilter filter = new ExpenseFilter();
+        filter.setAfterDate(LocalDate.of(2020, 1, 1));
+        filter.setAfterId(0L);
+        return expenseRepository.selectExpensePage(filter, 50);
+    }
+
+    // Lectura completa de la tabla con ExpenseReadRowMapper; se mide en milisegundos por su tamaño
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public List<ExpenseRow> selectExpenses() {
+        return expenseRepository.selectExpenses();
+    }
+}
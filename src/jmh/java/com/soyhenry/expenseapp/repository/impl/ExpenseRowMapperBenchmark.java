@@ -0,0 +1,78 @@
+package com.soyhenry.expenseapp.repository.impl;
+
+import com.soyhenry.expenseapp.benchmark.BenchmarkDatabase;
+import com.soyhenry.expenseapp.domain.Expense;
+import com.soyhenry.expenseapp.domain.ExpenseRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Lectura completa de la tabla con el mapeo anterior (SELECT *, columnas por nombre, Expense con wrappers)
+// contra el actual (columnas explícitas, acceso por posición, ExpenseRow). Correr con -prof gc para ver
+// gc.alloc.rate.norm, que con rows=1000000 es la asignación por millón de filas leídas
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx12g"})
+public class ExpenseRowMapperBenchmark {
+    private static final String SELECT_ALL_BY_NAME = "SELECT * FROM Expense";
+    private static final String SELECT_ALL_BY_POSITION = "SELECT id, amount_cents, category_id, category_name, date FROM Expense";
+
+    @Param({"1000000"})
+    private int rows;
+
+    private BenchmarkDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private RowMapper<ExpenseRow> expenseReadRowMapper;
+    private RowMapper<Expense> byNameRowMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        database = new BenchmarkDatabase(rows);
+        jdbcTemplate = database.getJdbcTemplate();
+        expenseReadRowMapper = new ExpenseRepositoryImpl.ExpenseReadRowMapper();
+        // Mapeo previo a ExpenseRowMapper por posición, como línea de base
+        byNameRowMapper = (rs, rowNum) -> {
+            Expense expense = new Expense();
+            expense.setId(rs.getLong("id"));
+            expense.setAmountCents(rs.getLong("amount_cents"));
+            expense.setCategoryId(rs.getLong("category_id"));
+            expense.setCategoryName(rs.getString("category_name"));
+            expense.setDate(rs.getObject("date", LocalDate.class));
+            return expense;
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        database.close();
+    }
+
+    @Benchmark
+    public List<Expense> byNameToExpense() {
+        return jdbcTemplate.query(SELECT_ALL_BY_NAME, byNameRowMapper);
+    }
+
+    @Benchmark
+    public List<ExpenseRow> byPositionToExpenseRow() {
+        return jdbcTemplate.query(SELECT_ALL_BY_POSITION, expenseReadRowMapper);
+    }
+}
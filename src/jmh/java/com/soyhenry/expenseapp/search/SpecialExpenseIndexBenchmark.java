@@ -0,0 +1,86 @@
+package com.soyhenry.expenseapp.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Búsqueda de gastos especiales en el índice invertido contra recorrer todos los motivos buscando el texto,
+// que es lo que hace un LIKE '%...%' sobre la tabla
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx12g"})
+public class SpecialExpenseIndexBenchmark {
+    private static final String[] CATEGORIES = {"salud", "auto", "hogar", "mascotas", "viajes", "educacion"};
+    private static final String[] WORDS = {"urgencia", "reparacion", "vacunas", "dentista", "choque", "calefon",
+            "mudanza", "matricula", "pasajes", "seguro", "guardia", "cirugia", "plomero", "electricista", "grua"};
+
+    @Param({"10000", "1000000"})
+    private int rows;
+
+    // Un término frecuente con uno casi único (que como prefijo abarca unos cien términos), dos frecuentes y uno solo
+    @Param({"dentista expediente4242", "dentista urgencia", "dentista"})
+    private String query;
+
+    private SpecialExpenseIndex.TenantIndex index;
+    private List<String> reasons;
+    private List<String> queryTerms;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        index = new SpecialExpenseIndex.TenantIndex();
+        reasons = new ArrayList<>(rows);
+        for (int id = 0; id < rows; id++) {
+            // Cada motivo combina tres palabras frecuentes y un término casi único
+            String reason = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " "
+                    + WORDS[random.nextInt(WORDS.length)] + " expediente" + random.nextInt(rows);
+            String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+            index.put(id, category, reason);
+            reasons.add(category + " " + reason);
+        }
+        queryTerms = SpecialExpenseIndex.tokenize(query);
+    }
+
+    @Benchmark
+    public SpecialExpenseIndex.SearchHits invertedIndex() {
+        return index.search(queryTerms, 20);
+    }
+
+    @Benchmark
+    public List<Integer> fullScan() {
+        List<Integer> matches = new ArrayList<>();
+        for (int id = 0; id < reasons.size(); id++) {
+            String reason = reasons.get(id);
+            if (containsAll(reason)) {
+                matches.add(id);
+            }
+        }
+        return matches;
+    }
+
+    private boolean containsAll(String reason) {
+        for (String term : queryTerms) {
+            if (!reason.contains(term)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,92 @@
+package com.soyhenry.expenseapp.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.soyhenry.expenseapp.benchmark.BenchmarkDatabase;
+import com.soyhenry.expenseapp.domain.ExpenseRow;
+import com.soyhenry.expenseapp.dto.response.ExpensePageCompactResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpenseResponseDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Mapeo de entidades a DTOs de respuesta y su serialización con Jackson, sobre los gastos leídos de la base sembrada.
+// Compara el JSON del listado con la forma por columnas que se envía en Smile y CBOR
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx12g"})
+public class ExpenseMappingBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    private int rows;
+
+    private ExpenseServiceImpl expenseService;
+    private ObjectMapper objectMapper;
+    private List<ExpenseRow> expenses;
+    private List<ExpenseResponseDto> responses;
+    private SmileMapper smileMapper;
+    private CBORMapper cborMapper;
+    private ExpensePageCompactResponseDto compactResponse;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        try (BenchmarkDatabase database = new BenchmarkDatabase(rows)) {
+            expenses = database.getExpenseRepository().selectExpenses();
+        }
+        // El mapeo no usa las dependencias del servicio
+        expenseService = new ExpenseServiceImpl(null, null, null, null, 500, null, 500, null, null, null, 1000, null);
+        objectMapper = new ObjectMapper();
+        responses = mapExpenseRowToResponseDto();
+        smileMapper = new SmileMapper();
+        cborMapper = new CBORMapper();
+        compactResponse = mapExpenseRowsToCompactDto();
+    }
+
+    @Benchmark
+    public List<ExpenseResponseDto> mapExpenseRowToResponseDto() {
+        List<ExpenseResponseDto> mapped = new ArrayList<>(expenses.size());
+        for (ExpenseRow expense : expenses) {
+            mapped.add(expenseService.mapExpenseRowToResponseDto(expense));
+        }
+        return mapped;
+    }
+
+    @Benchmark
+    public void serializeResponseDtos() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), responses);
+    }
+
+    @Benchmark
+    public ExpensePageCompactResponseDto mapExpenseRowsToCompactDto() {
+        return expenseService.mapExpenseRowsToCompactDto(expenses, null);
+    }
+
+    @Benchmark
+    public void serializeCompactSmile() throws IOException {
+        smileMapper.writeValue(OutputStream.nullOutputStream(), compactResponse);
+    }
+
+    @Benchmark
+    public void serializeCompactCbor() throws IOException {
+        cborMapper.writeValue(OutputStream.nullOutputStream(), compactResponse);
+    }
+}
@@ -0,0 +1,105 @@
+package com.soyhenry.expenseapp.analytics;
+
+import com.soyhenry.expenseapp.domain.ExpenseBucketSum;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+// Agrega una vista de la copia analítica en paralelo: parte sus filas en mitades con fork-join hasta tramos de
+// a lo sumo filas / paralelismo (y no menos de minRowsPerTask), agrega cada tramo y junta los parciales en centavos,
+// así que el resultado es el mismo que el de un recorrido secuencial. Las vistas chicas o un paralelismo
+// de 1 se agregan en el hilo que llama
+class ExpenseColumnAggregator implements AutoCloseable {
+    // Por debajo de este tamaño repartir cuesta más de lo que se gana
+    static final int MIN_ROWS_PER_TASK = 1 << 16;
+    // Celdas que pueden acumular a la vez los tramos de una serie densa (cada celda ocupa 16 bytes por tramo)
+    static final int MAX_PARALLEL_DENSE_CELLS = 8_000_000;
+
+    private final int parallelism;
+    private final int minRowsPerTask;
+    private final ForkJoinPool pool;
+
+    ExpenseColumnAggregator(int parallelism, int minRowsPerTask) {
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.minRowsPerTask = minRowsPerTask;
+        this.pool = this.parallelism > 1 ? new ForkJoinPool(this.parallelism) : null;
+    }
+
+    // Suma en centavos entre dos días inclusive
+    long sum(ExpenseColumns.View view, int fromDay, int toDay) {
+        return aggregate(view, parallelism, (start, end) -> view.sum(fromDay, toDay, start, end), (left, right) -> {
+            left.merge(right);
+            return left;
+        }).cents();
+    }
+
+    // [total en centavos, cantidad] de una categoría entre dos días inclusive, como ExpenseColumns.View.sumByCategory
+    long[] sumByCategory(ExpenseColumns.View view, long categoryId, int fromDay, int toDay) {
+        int code = view.codeOf(categoryId);
+        PartialSum sum = aggregate(view, parallelism, (start, end) -> view.sumByCategory(code, fromDay, toDay, start, end),
+                (left, right) -> {
+                    left.merge(right);
+                    return left;
+                });
+        return new long[]{sum.cents(), sum.count()};
+    }
+
+    List<ExpenseBucketSum> sumsByDay(ExpenseColumns.View view, int fromDay, int toDay, boolean byCategory) {
+        // Cada tramo tiene sus propios arreglos densos, así que con muchas celdas se usan menos tramos
+        long cells = (long) (toDay - fromDay + 1) * (byCategory ? Math.max(view.categoryCount(), 1) : 1);
+        int tasks = (int) Math.max(1, Math.min(parallelism, MAX_PARALLEL_DENSE_CELLS / cells));
+        return aggregate(view, tasks, (start, end) -> view.sumsByDay(fromDay, toDay, byCategory, start, end),
+                ExpenseColumns.DaySums::merge).toBuckets(view, fromDay, byCategory);
+    }
+
+    private <T> T aggregate(ExpenseColumns.View view, int tasks, RangeAggregation<T> aggregation, BinaryOperator<T> merge) {
+        int size = view.rows();
+        int rowsPerTask = Math.max(minRowsPerTask, (size + tasks - 1) / Math.max(tasks, 1));
+        if (pool == null || size <= rowsPerTask) {
+            return aggregation.apply(0, size);
+        }
+        return pool.invoke(new RangeTask<>(aggregation, merge, 0, size, rowsPerTask));
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @FunctionalInterface
+    interface RangeAggregation<T> {
+        T apply(int start, int end);
+    }
+
+    private static final class RangeTask<T> extends RecursiveTask<T> {
+        private final RangeAggregation<T> aggregation;
+        private final BinaryOperator<T> merge;
+        private final int start;
+        private final int end;
+        private final int rowsPerTask;
+
+        RangeTask(RangeAggregation<T> aggregation, BinaryOperator<T> merge, int start, int end, int rowsPerTask) {
+            this.aggregation = aggregation;
+            this.merge = merge;
+            this.start = start;
+            this.end = end;
+            this.rowsPerTask = rowsPerTask;
+        }
+
+        @Override
+        protected T compute() {
+            if (end - start <= rowsPerTask) {
+                return aggregation.apply(start, end);
+            }
+            int middle = start + (end - start) / 2;
+            RangeTask<T> left = new RangeTask<>(aggregation, merge, start, middle, rowsPerTask);
+            left.fork();
+            T right = new RangeTask<>(aggregation, merge, middle, end, rowsPerTask).compute();
+            return merge.apply(left.join(), right);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+package com.soyhenry.expenseapp.analytics;
+
+import com.soyhenry.expenseapp.domain.Expense;
+import com.soyhenry.expenseapp.domain.ExpenseBucketSum;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Copia por columnas de los gastos de una cuenta: monto en centavos, día (epoch day) y categoría codificada con un diccionario,
+// cada una en un arreglo de primitivos. No guarda ids: una baja se registra como una fila con el mismo monto, día y
+// categoría y peso -1, así que sumas y cantidades siguen siendo exactas y escribir es siempre agregar al final.
+// Cuando las filas con peso -1 se acumulan, compact() las cancela contra las originales.
+// Las lecturas toman la vista publicada (volatile) y recorren sus arreglos sin bloqueo; las escrituras se serializan
+// y nunca modifican posiciones que una vista ya publicada considera válidas
+public class ExpenseColumns {
+    // Se compacta cuando las bajas pendientes superan esta cantidad y además un cuarto de las filas
+    static final int MIN_ROWS_TO_COMPACT = 10_000;
+    static final View EMPTY_VIEW = new View(new long[0], new int[0], new int[0], new byte[0], 0, new long[0], new String[0], 0);
+
+    private final Map<Long, Integer> categoryCodes = new HashMap<>();
+    private long[] amounts = new long[16];
+    private int[] epochDays = new int[16];
+    private int[] categories = new int[16];
+    private byte[] weights = new byte[16];
+    private int size;
+    private long[] categoryIds = new long[8];
+    private String[] categoryNames = new String[8];
+    private int categoryCount;
+    private int removedRows;
+    private volatile View view = new View(amounts, epochDays, categories, weights, 0, categoryIds, categoryNames, 0);
+
+    public View view() {
+        return view;
+    }
+
+    // Aplica una escritura confirmada: agrega las filas nuevas, registra las quitadas y publica una vista nueva
+    public synchronized void apply(List<Expense> added, List<Expense> removed) {
+        for (Expense expense : added) {
+            append(expense.getAmountCents(), (int) expense.getDate().toEpochDay(),
+                    codeFor(expense.getCategoryId(), expense.getCategoryName()), (byte) 1);
+        }
+        for (Expense expense : removed) {
+            append(-expense.getAmountCents(), (int) expense.getDate().toEpochDay(),
+                    codeFor(expense.getCategoryId(), expense.getCategoryName()), (byte) -1);
+        }
+        removedRows += removed.size();
+        if (removedRows >= MIN_ROWS_TO_COMPACT && removedRows * 4L >= size) {
+            compact();
+        }
+        publish();
+    }
+
+    // Carga inicial: agrega sin publicar, y publish() expone todo junto al terminar
+    synchronized void load(long amountCents, int epochDay, long categoryId, String categoryName) {
+        append(amountCents, epochDay, codeFor(categoryId, categoryName), (byte) 1);
+    }
+
+    private void append(long amountCents, int epochDay, int categoryCode, byte weight) {
+        if (size == amounts.length) {
+            int capacity = size * 2;
+            amounts = Arrays.copyOf(amounts, capacity);
+            epochDays = Arrays.copyOf(epochDays, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        amounts[size] = amountCents;
+        epochDays[size] = epochDay;
+        categories[size] = categoryCode;
+        weights[size] = weight;
+        size++;
+    }
+
+    private int codeFor(long categoryId, String categoryName) {
+        Integer code = categoryCodes.get(categoryId);
+        if (code != null) {
+            return code;
+        }
+        if (categoryCount == categoryIds.length) {
+            categoryIds = Arrays.copyOf(categoryIds, categoryCount * 2);
+            categoryNames = Arrays.copyOf(categoryNames, categoryCount * 2);
+        }
+        categoryIds[categoryCount] = categoryId;
+        categoryNames[categoryCount] = categoryName;
+        categoryCodes.put(categoryId, categoryCount);
+        return categoryCount++;
+    }
+
+    synchronized void publish() {
+        view = new View(amounts, epochDays, categories, weights, size, categoryIds, categoryNames, categoryCount);
+    }
+
+    // Arma arreglos nuevos sin las bajas ni las filas que cancelan: las vistas anteriores siguen siendo válidas
+    private void compact() {
+        Map<RemovedRow, int[]> pending = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            if (weights[i] < 0) {
+                pending.computeIfAbsent(new RemovedRow(epochDays[i], categories[i], -amounts[i]),
+                        ignored -> new int[1])[0]++;
+            }
+        }
+        long[] newAmounts = new long[Math.max(16, size)];
+        int[] newEpochDays = new int[newAmounts.length];
+        int[] newCategories = new int[newAmounts.length];
+        byte[] newWeights = new byte[newAmounts.length];
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (weights[i] < 0) {
+                continue;
+            }
+            int[] count = pending.get(new RemovedRow(epochDays[i], categories[i], amounts[i]));
+            if (count != null && count[0] > 0) {
+                count[0]--;
+                continue;
+            }
+            newAmounts[kept] = amounts[i];
+            newEpochDays[kept] = epochDays[i];
+            newCategories[kept] = categories[i];
+            newWeights[kept] = 1;
+            kept++;
+        }
+        // Una baja sin su alta (no debería ocurrir) se conserva para no alterar las sumas
+        int unmatched = 0;
+        for (Map.Entry<RemovedRow, int[]> entry : pending.entrySet()) {
+            for (int n = 0; n < entry.getValue()[0]; n++) {
+                newAmounts[kept] = -entry.getKey().amountCents();
+                newEpochDays[kept] = entry.getKey().epochDay();
+                newCategories[kept] = entry.getKey().categoryCode();
+                newWeights[kept] = -1;
+                kept++;
+                unmatched++;
+            }
+        }
+        amounts = newAmounts;
+        epochDays = newEpochDays;
+        categories = newCategories;
+        weights = newWeights;
+        size = kept;
+        removedRows = unmatched;
+    }
+
+    private record RemovedRow(int epochDay, int categoryCode, long amountCents) {
+    }
+
+    // Estado inmutable de las columnas en un momento dado. Cada agregación recorre un tramo de filas [start, end) y
+    // devuelve un parcial en centavos; los métodos públicos recorren todas las filas en el hilo que llama y
+    // ExpenseColumnAggregator reparte los tramos entre varios hilos y junta los parciales
+    public record View(long[] amounts, int[] epochDays, int[] categories, byte[] weights, int size,
+                       long[] categoryIds, String[] categoryNames, int categoryCount) {
+
+        public int rows() {
+            return size;
+        }
+
+        public int categoryCount() {
+            return categoryCount;
+        }
+
+        // Suma en centavos de los montos entre dos días inclusive
+        public long sum(int fromDay, int toDay) {
+            return sum(fromDay, toDay, 0, size).cents();
+        }
+
+        // [total en centavos, cantidad] de una categoría entre dos días inclusive; sin la categoría, ambos en cero
+        public long[] sumByCategory(long categoryId, int fromDay, int toDay) {
+            PartialSum sum = sumByCategory(codeOf(categoryId), fromDay, toDay, 0, size);
+            return new long[]{sum.cents(), sum.count()};
+        }
+
+        // Totales por día (y por categoría si se pide) entre dos días inclusive; sólo los períodos con gastos, como la
+        // consulta equivalente en la BD
+        public List<ExpenseBucketSum> sumsByDay(int fromDay, int toDay, boolean byCategory) {
+            return sumsByDay(fromDay, toDay, byCategory, 0, size).toBuckets(this, fromDay, byCategory);
+        }
+
+        PartialSum sum(int fromDay, int toDay, int start, int end) {
+            PartialSum sum = new PartialSum();
+            for (int i = start; i < end; i++) {
+                int day = epochDays[i];
+                if (day >= fromDay && day <= toDay) {
+                    sum.add(amounts[i], weights[i]);
+                }
+            }
+            return sum;
+        }
+
+        PartialSum sumByCategory(int code, int fromDay, int toDay, int start, int end) {
+            PartialSum sum = new PartialSum();
+            if (code >= 0) {
+                for (int i = start; i < end; i++) {
+                    int day = epochDays[i];
+                    if (categories[i] == code && day >= fromDay && day <= toDay) {
+                        sum.add(amounts[i], weights[i]);
+                    }
+                }
+            }
+            return sum;
+        }
+
+        // Acumula en arreglos densos indexados por día (y código de categoría)
+        DaySums sumsByDay(int fromDay, int toDay, boolean byCategory, int start, int end) {
+            int days = toDay - fromDay + 1;
+            int groups = byCategory ? categoryCount : 1;
+            DaySums sums = new DaySums(days * groups);
+            for (int i = start; i < end; i++) {
+                int day = epochDays[i] - fromDay;
+                if (day >= 0 && day < days) {
+                    sums.add(byCategory ? day * groups + categories[i] : day, amounts[i], weights[i]);
+                }
+            }
+            return sums;
+        }
+
+        int codeOf(long categoryId) {
+            for (int code = 0; code < categoryCount; code++) {
+                if (categoryIds[code] == categoryId) {
+                    return code;
+                }
+            }
+            return -1;
+        }
+    }
+
+    // Totales en centavos y cantidades por celda (día, o día y categoría) de un tramo de filas
+    static final class DaySums {
+        private final long[] totals;
+        private final long[] counts;
+
+        DaySums(int cells) {
+            totals = new long[cells];
+            counts = new long[cells];
+        }
+
+        void add(int cell, long amountCents, int weight) {
+            totals[cell] += amountCents;
+            counts[cell] += weight;
+        }
+
+        DaySums merge(DaySums other) {
+            for (int cell = 0; cell < totals.length; cell++) {
+                totals[cell] += other.totals[cell];
+                counts[cell] += other.counts[cell];
+            }
+            return this;
+        }
+
+        List<ExpenseBucketSum> toBuckets(View view, int fromDay, boolean byCategory) {
+            int groups = byCategory ? view.categoryCount() : 1;
+            List<ExpenseBucketSum> sums = new ArrayList<>();
+            for (int cell = 0; cell < totals.length; cell++) {
+                if (counts[cell] > 0) {
+                    LocalDate period = LocalDate.ofEpochDay(fromDay + cell / groups);
+                    if (byCategory) {
+                        int code = cell % groups;
+                        sums.add(new ExpenseBucketSum(period, view.categoryIds()[code], view.categoryNames()[code], totals[cell], counts[cell]));
+                    } else {
+                        sums.add(new ExpenseBucketSum(period, 0, null, totals[cell], counts[cell]));
+                    }
+                }
+            }
+            return sums;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.soyhenry.expenseapp.analytics;
+
+// Suma en centavos y cantidad de filas de un tramo de la copia analítica. Como los montos son enteros,
+// el total no depende de cómo se repartieron las filas entre tramos ni del orden en que se juntan
+final class PartialSum {
+    private long cents;
+    private long count;
+
+    void add(long amountCents, int weight) {
+        cents += amountCents;
+        count += weight;
+    }
+
+    void merge(PartialSum other) {
+        cents += other.cents;
+        count += other.count;
+    }
+
+    long cents() {
+        return cents;
+    }
+
+    long count() {
+        return count;
+    }
+}
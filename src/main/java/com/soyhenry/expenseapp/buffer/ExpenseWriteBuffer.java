@@ -0,0 +1,207 @@
+package com.soyhenry.expenseapp.buffer;
+
+import com.soyhenry.expenseapp.domain.Expense;
+import com.soyhenry.expenseapp.exception.BadRequestException;
+import com.soyhenry.expenseapp.exception.ServiceUnavailableException;
+import com.soyhenry.expenseapp.repository.ExpenseRepository;
+import com.soyhenry.expenseapp.tenant.TenantContext;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// Escritura diferida de altas: los requests encolan el gasto ya validado y un único hilo escritor los
+// inserta de a lotes con un batch de JDBC y una sola transacción, cuando se juntan maxBatchSize gastos
+// o pasa flushInterval. Cada alta recibe un future que se completa cuando su lote hizo commit.
+// La cola está acotada por capacity: si no hay lugar en offerTimeout el alta se rechaza con 503.
+// Al detener la app se rechazan las altas nuevas y se escribe todo lo pendiente antes de cerrar la BD.
+// Cada alta guarda la cuenta del request, y el escritor inserta un lote por cuenta con esa cuenta fijada
+@Component
+public class ExpenseWriteBuffer {
+    private static final Logger log = LoggerFactory.getLogger(ExpenseWriteBuffer.class);
+
+    private final ExpenseRepository expenseRepository;
+    private final boolean enabled;
+    private final int capacity;
+    private final int maxBatchSize;
+    private final long flushIntervalNanos;
+    private final long offerTimeoutMillis;
+
+    private final ConcurrentLinkedQueue<PendingExpense> queue = new ConcurrentLinkedQueue<>();
+    // Lugares libres en la cola; se toman al encolar y se devuelven cuando termina de escribirse el lote del gasto,
+    // así la cola más el lote en curso nunca superan capacity
+    private final Semaphore freeSlots;
+    private volatile boolean running;
+    private Thread writer;
+
+    public ExpenseWriteBuffer(ExpenseRepository expenseRepository,
+                              @Value("${expenseapp.write-behind.enabled:false}") boolean enabled,
+                              @Value("${expenseapp.write-behind.capacity:10000}") int capacity,
+                              @Value("${expenseapp.write-behind.max-batch-size:500}") int maxBatchSize,
+                              @Value("${expenseapp.write-behind.flush-interval-ms:20}") long flushIntervalMillis,
+                              @Value("${expenseapp.write-behind.offer-timeout-ms:100}") long offerTimeoutMillis) {
+        this.expenseRepository = expenseRepository;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.maxBatchSize = maxBatchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+        this.freeSlots = new Semaphore(capacity);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::runWriter, "expense-write-behind");
+        writer.start();
+    }
+
+    // Deja de aceptar altas y espera a que el escritor vacíe la cola
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join();
+        // Un alta que pasó el control de running justo antes de detenerse puede haber quedado en la cola
+        List<PendingExpense> remaining = new ArrayList<>();
+        PendingExpense pending;
+        while ((pending = queue.poll()) != null) {
+            remaining.add(pending);
+        }
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+        log.info("Escritura diferida detenida; pendientes escritos");
+    }
+
+    public CompletableFuture<Void> submit(Expense expense) {
+        if (!running) {
+            throw new ServiceUnavailableException("La escritura diferida de gastos no está disponible");
+        }
+        try {
+            if (!freeSlots.tryAcquire(offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new ServiceUnavailableException("Hay demasiados gastos pendientes de registrar, reintente en unos segundos");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Se interrumpió el alta del gasto");
+        }
+
+        PendingExpense pending = new PendingExpense(TenantContext.getTenantId(), expense, new CompletableFuture<>());
+        queue.offer(pending);
+        // Si stop() empezó entre el control de running y el offer, su vaciado final pudo no ver el alta: se retira y se
+        // rechaza. Si ya no está en la cola la tomó el escritor o el vaciado, que completan su future
+        if (!running && queue.remove(pending)) {
+            freeSlots.release();
+            throw new ServiceUnavailableException("La escritura diferida de gastos no está disponible");
+        }
+        // Con un lote completo no tiene sentido esperar al intervalo
+        if (pendingCount() >= maxBatchSize) {
+            LockSupport.unpark(writer);
+        }
+        return pending.future();
+    }
+
+    private int pendingCount() {
+        return capacity - freeSlots.availablePermits();
+    }
+
+    private void runWriter() {
+        List<PendingExpense> batch = new ArrayList<>(maxBatchSize);
+        while (true) {
+            long deadline = System.nanoTime() + flushIntervalNanos;
+            long remaining;
+            while (running && pendingCount() < maxBatchSize && (remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(this, remaining);
+            }
+
+            PendingExpense pending;
+            while (batch.size() < maxBatchSize && (pending = queue.poll()) != null) {
+                batch.add(pending);
+            }
+            if (batch.isEmpty()) {
+                // Se termina sólo cuando ya no se aceptan altas y no queda nada en la cola
+                if (!running && queue.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            try {
+                flush(batch);
+            } finally {
+                freeSlots.release(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingExpense> batch) {
+        Map<String, List<PendingExpense>> batchesByTenant = new LinkedHashMap<>();
+        for (PendingExpense pending : batch) {
+            batchesByTenant.computeIfAbsent(pending.tenantId(), tenantId -> new ArrayList<>()).add(pending);
+        }
+        for (Map.Entry<String, List<PendingExpense>> tenantBatch : batchesByTenant.entrySet()) {
+            TenantContext.setTenantId(tenantBatch.getKey());
+            try {
+                flushTenant(tenantBatch.getValue());
+            } finally {
+                TenantContext.clear();
+            }
+        }
+    }
+
+    private void flushTenant(List<PendingExpense> batch) {
+        List<Expense> expenses = new ArrayList<>(batch.size());
+        for (PendingExpense pending : batch) {
+            expenses.add(pending.expense());
+        }
+        try {
+            expenseRepository.insertExpenses(expenses);
+            batch.forEach(pending -> pending.future().complete(null));
+        } catch (RuntimeException e) {
+            log.warn("Falló el lote de {} gastos, se reintenta de a uno", batch.size(), e);
+            // Igual que en POST /batch, se reintenta ítem por ítem para que un gasto con error no haga fallar al resto
+            for (PendingExpense pending : batch) {
+                insertOne(pending);
+            }
+        }
+    }
+
+    private void insertOne(PendingExpense pending) {
+        try {
+            expenseRepository.insertExpense(pending.expense());
+            pending.future().complete(null);
+        } catch (DataAccessException e) {
+            // Mismo error que devuelve el alta sincrónica
+            pending.future().completeExceptionally(new BadRequestException(e.getMessage()));
+        } catch (RuntimeException e) {
+            pending.future().completeExceptionally(e);
+        }
+    }
+
+    private record PendingExpense(String tenantId, Expense expense, CompletableFuture<Void> future) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.soyhenry.expenseapp.cache;
+
+import com.soyhenry.expenseapp.exception.ServiceUnavailableException;
+import com.soyhenry.expenseapp.tenant.TenantContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+// Agrupa los cálculos de agregados idénticos que llegan al mismo tiempo (single-flight): el primer request de una
+// clave lanza el cálculo en el executor de tareas de la app y los que llegan mientras tanto reciben el mismo resultado,
+// sin ocupar un hilo del servidor mientras esperan. La clave incluye la versión de los datos, así que un request
+// posterior a una escritura nunca se suma a un cálculo que empezó antes de ella.
+// Se publica expense.aggregate.requests con los tags aggregate y outcome (computed, coalesced o cached)
+@Component
+public class AggregateRequestCoalescer {
+    private final ConcurrentHashMap<AggregateKey, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AsyncTaskExecutor executor;
+    private final MeterRegistry meterRegistry;
+
+    public AggregateRequestCoalescer(@Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) AsyncTaskExecutor executor,
+                                     MeterRegistry meterRegistry) {
+        this.executor = executor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // Devuelve el resultado del cálculo en curso para (aggregate, cuenta actual, arguments, version), o lanza uno nuevo.
+    // El loader corre en otro hilo con la cuenta del request fijada en TenantContext
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> compute(String aggregate, Object arguments, String version, Supplier<T> loader) {
+        String tenantId = TenantContext.getTenantId();
+        AggregateKey key = new AggregateKey(aggregate, tenantId, arguments, version);
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            record(aggregate, "coalesced");
+            // Cada request recibe su propia copia, así que cancelar una no afecta a los demás
+            return (CompletableFuture<T>) existing.copy();
+        }
+
+        record(aggregate, "computed");
+        try {
+            executor.execute(() -> {
+                TenantContext.setTenantId(tenantId);
+                // La clave se libera antes de completar: quien llegue después, incluso tras un error, calcula de nuevo
+                try {
+                    Object value = loader.get();
+                    inFlight.remove(key, created);
+                    created.complete(value);
+                } catch (Throwable e) {
+                    inFlight.remove(key, created);
+                    created.completeExceptionally(e);
+                } finally {
+                    TenantContext.clear();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(new ServiceUnavailableException("No hay capacidad para calcular el agregado; reintente en unos instantes"));
+        }
+        return (CompletableFuture<T>) created.copy();
+    }
+
+    // Para los requests que se resuelven sin calcular, por ejemplo desde una caché
+    public void recordCached(String aggregate) {
+        record(aggregate, "cached");
+    }
+
+    private void record(String aggregate, String outcome) {
+        meterRegistry.counter("expense.aggregate.requests", "aggregate", aggregate, "outcome", outcome).increment();
+    }
+
+    private record AggregateKey(String aggregate, String tenantId, Object arguments, String version) {
+    }
+}
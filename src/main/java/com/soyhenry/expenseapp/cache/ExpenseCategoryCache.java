@@ -0,0 +1,107 @@
+package com.soyhenry.expenseapp.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.soyhenry.expenseapp.domain.ExpenseCategory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+// Registro en memoria de las categorías indexado por cuenta y nombre en minúsculas.
+// Las categorías nunca se borran, así que una entrada cacheada sólo puede quedar inválida
+// si la transacción que la creó hace rollback: por eso las altas se registran recién al commit.
+// También guarda el listado completo de categorías de cada cuenta, que se descarta cuando esa cuenta registra una nueva;
+// en ese momento avanza además la versión de categorías de la cuenta (ETag de GET /categories).
+// Ambas cachés están acotadas: al llenarse desalojan las entradas menos usadas, que se vuelven a leer de la BD.
+// Los aciertos, fallos y desalojos se publican con cache=expense.category y cache=expense.category-listing
+@Component
+public class ExpenseCategoryCache {
+    private final Cache<CategoryKey, ExpenseCategory> categoriesByName;
+    private final ExpenseDataVersions expenseDataVersions;
+    private final Cache<String, List<ExpenseCategory>> allCategories;
+    // Se incrementa en cada invalidación para descartar listados que se leyeron de la BD antes del alta
+    private long allCategoriesVersion;
+
+    public ExpenseCategoryCache(@Value("${expenseapp.category-cache.max-size:1000}") long maxSize,
+                                @Value("${expenseapp.category-cache.max-tenants:1000}") long maxTenants,
+                                ExpenseDataVersions expenseDataVersions,
+                                MeterRegistry meterRegistry) {
+        this.categoriesByName = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.allCategories = Caffeine.newBuilder()
+                .maximumSize(maxTenants)
+                .recordStats()
+                .build();
+        this.expenseDataVersions = expenseDataVersions;
+        CaffeineCacheMetrics.monitor(meterRegistry, categoriesByName, "expense.category");
+        CaffeineCacheMetrics.monitor(meterRegistry, allCategories, "expense.category-listing");
+    }
+
+    public ExpenseCategory get(String tenantId, String name) {
+        return categoriesByName.getIfPresent(new CategoryKey(tenantId, normalize(name)));
+    }
+
+    // Registra la categoría; si hay una transacción activa espera a que confirme para no cachear ids que luego se deshacen
+    public void put(String tenantId, ExpenseCategory category) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    store(tenantId, category);
+                    invalidateAll(tenantId);
+                }
+            });
+        } else {
+            store(tenantId, category);
+            invalidateAll(tenantId);
+        }
+    }
+
+    // Devuelve el listado completo cacheado de la cuenta o null si hay que leerlo de la BD
+    public List<ExpenseCategory> getAll(String tenantId) {
+        return allCategories.getIfPresent(tenantId);
+    }
+
+    public synchronized long getAllVersion() {
+        return allCategoriesVersion;
+    }
+
+    // Guarda el listado sólo si no se registró ninguna categoría desde que se empezó a leer (version)
+    public synchronized void putAll(String tenantId, List<ExpenseCategory> categories, long version) {
+        if (version == allCategoriesVersion) {
+            allCategories.put(tenantId, List.copyOf(categories));
+        }
+    }
+
+    private synchronized void invalidateAll(String tenantId) {
+        allCategoriesVersion++;
+        allCategories.invalidate(tenantId);
+        expenseDataVersions.onCategoryAdded(tenantId);
+    }
+
+    public void warm(String tenantId, ExpenseCategory category) {
+        store(tenantId, category);
+    }
+
+    public long size() {
+        return categoriesByName.estimatedSize();
+    }
+
+    private void store(String tenantId, ExpenseCategory category) {
+        categoriesByName.asMap().putIfAbsent(new CategoryKey(tenantId, normalize(category.getName())), category);
+    }
+
+    private static String normalize(String name) {
+        return name.toLowerCase();
+    }
+
+    private record CategoryKey(String tenantId, String name) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.soyhenry.expenseapp.cache;
+
+import com.soyhenry.expenseapp.domain.DataVersion;
+import com.soyhenry.expenseapp.event.ExpenseChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.YearMonth;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Contador de versiones de los datos de gastos de cada cuenta, global y por mes, que avanza cuando una escritura
+// de esa cuenta hace commit, y de su listado de categorías, que avanza cuando se confirma una categoría nueva.
+// Los endpoints que consultan los dashboards lo usan como ETag para responder 304 sin ir a la BD.
+// Los tags llevan el instante de arranque para que no se repitan después de reiniciar la app
+@Component
+public class ExpenseDataVersions {
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final DataVersion initial = new DataVersion(epoch + "-0", System.currentTimeMillis());
+    private final ConcurrentMap<String, DataVersion> tenantVersions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<TenantMonth, DataVersion> monthVersions = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, DataVersion> categoryVersions = new ConcurrentHashMap<>();
+    private final MonthlyExpenseSumCache monthlyExpenseSumCache;
+    private long version;
+
+    public ExpenseDataVersions(MonthlyExpenseSumCache monthlyExpenseSumCache) {
+        this.monthlyExpenseSumCache = monthlyExpenseSumCache;
+    }
+
+    // Una cuenta sin escrituras desde el arranque conserva la versión inicial
+    public DataVersion current(String tenantId) {
+        return tenantVersions.getOrDefault(tenantId, initial);
+    }
+
+    // Un mes sin escrituras desde el arranque conserva la versión inicial
+    public DataVersion forMonth(String tenantId, YearMonth month) {
+        return monthVersions.getOrDefault(new TenantMonth(tenantId, month), initial);
+    }
+
+    // Las categorías también se crean desde los gastos especiales, que no publican ExpenseChangedEvent,
+    // así que el listado lleva su propia versión
+    public DataVersion forCategories(String tenantId) {
+        return categoryVersions.getOrDefault(tenantId, initial);
+    }
+
+    // La llama ExpenseCategoryCache cuando la transacción que creó la categoría hace commit
+    public synchronized void onCategoryAdded(String tenantId) {
+        categoryVersions.put(tenantId, new DataVersion(epoch + "-" + (++version), System.currentTimeMillis()));
+    }
+
+    // Sin transacción activa (p. ej. la reconstrucción de acumulados fuera de una) se aplica en el momento.
+    // Las sumas cacheadas se descartan en este mismo paso y antes del cambio de versión: con dos listeners sin orden
+    // entre sí, un request podía recibir el ETag nuevo con la suma anterior y quedar fijado a ella por los 304
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onExpenseChanged(ExpenseChangedEvent event) {
+        monthlyExpenseSumCache.invalidate(event);
+        DataVersion changed = new DataVersion(epoch + "-" + (++version), System.currentTimeMillis());
+        for (YearMonth month : event.months()) {
+            monthVersions.put(new TenantMonth(event.tenantId(), month), changed);
+        }
+        tenantVersions.put(event.tenantId(), changed);
+    }
+
+    private record TenantMonth(String tenantId, YearMonth month) {
+    }
+}
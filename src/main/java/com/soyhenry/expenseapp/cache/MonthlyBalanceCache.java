@@ -0,0 +1,51 @@
+package com.soyhenry.expenseapp.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.soyhenry.expenseapp.domain.MonthlyPrefixSums;
+import com.soyhenry.expenseapp.event.ExpenseChangedEvent;
+import com.soyhenry.expenseapp.event.IncomeChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+// Sumas acumuladas por mes de ingresos y gastos de cada cuenta, para el balance. Se arman a partir de los acumulados
+// mensuales y se descartan cuando una escritura de ingresos o gastos de la cuenta hace commit.
+// Las métricas cache.* se publican con cache=expense.balance-prefix
+@Component
+public class MonthlyBalanceCache {
+    private final Cache<String, MonthlyPrefixSums> prefixSums;
+
+    public MonthlyBalanceCache(@Value("${expenseapp.balance-cache.max-size:1000}") long maxSize,
+                               MeterRegistry meterRegistry) {
+        this.prefixSums = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, prefixSums, "expense.balance-prefix");
+    }
+
+    public MonthlyPrefixSums get(String tenantId, Supplier<MonthlyPrefixSums> loader) {
+        // Dentro de una transacción la lectura puede ver cambios sin confirmar, así que no se cachea
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            MonthlyPrefixSums cached = prefixSums.getIfPresent(tenantId);
+            return cached != null ? cached : loader.get();
+        }
+        return prefixSums.get(tenantId, ignored -> loader.get());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onExpenseChanged(ExpenseChangedEvent event) {
+        prefixSums.invalidate(event.tenantId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIncomeChanged(IncomeChangedEvent event) {
+        prefixSums.invalidate(event.tenantId());
+    }
+}
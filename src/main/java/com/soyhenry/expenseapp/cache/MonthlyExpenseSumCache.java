@@ -0,0 +1,60 @@
+package com.soyhenry.expenseapp.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.soyhenry.expenseapp.event.ExpenseChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.function.Supplier;
+
+// Sumas mensuales ya calculadas por cuenta, acotadas por cantidad y por antigüedad. Una entrada sólo se descarta cuando
+// una escritura de esa cuenta que toca ese mes hace commit (en una actualización que cambia de mes, el anterior y el nuevo).
+// Los aciertos, fallos y desalojos se publican como métricas cache.* con cache=expense.monthly-sum
+@Component
+public class MonthlyExpenseSumCache {
+    private final Cache<TenantMonth, Double> sums;
+
+    public MonthlyExpenseSumCache(@Value("${expenseapp.monthly-sum-cache.max-size:1200}") long maxSize,
+                                  @Value("${expenseapp.monthly-sum-cache.expire-after-write:PT1H}") Duration expireAfterWrite,
+                                  MeterRegistry meterRegistry) {
+        this.sums = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, sums, "expense.monthly-sum");
+    }
+
+    public Double get(String tenantId, YearMonth month, Supplier<Double> loader) {
+        TenantMonth key = new TenantMonth(tenantId, month);
+        // Dentro de una transacción la lectura puede ver cambios sin confirmar, así que no se cachea
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            Double cached = sums.getIfPresent(key);
+            return cached != null ? cached : loader.get();
+        }
+        // Si el mes se invalida mientras se carga, Caffeine espera a que termine la carga y la descarta
+        return sums.get(key, ignored -> loader.get());
+    }
+
+    // Suma ya calculada del mes, o null si no está en la caché
+    public Double getIfPresent(String tenantId, YearMonth month) {
+        return sums.getIfPresent(new TenantMonth(tenantId, month));
+    }
+
+    // La llama ExpenseDataVersions al confirmarse la escritura, antes de avanzar la versión de esos meses: así un request
+    // que ya ve el ETag nuevo no puede leer la suma anterior de la caché
+    public void invalidate(ExpenseChangedEvent event) {
+        for (YearMonth month : event.months()) {
+            sums.invalidate(new TenantMonth(event.tenantId(), month));
+        }
+    }
+
+    private record TenantMonth(String tenantId, YearMonth month) {
+    }
+}
@@ -1,16 +1,33 @@
 package com.soyhenry.expenseapp.controller;
 
+import com.soyhenry.expenseapp.domain.DataVersion;
+import com.soyhenry.expenseapp.dto.ExpenseExportFormat;
+import com.soyhenry.expenseapp.dto.SeriesGranularity;
 import com.soyhenry.expenseapp.dto.response.MonthlyExpenseSumResponseDto;
+import com.soyhenry.expenseapp.dto.request.ExpenseFilterRequestDto;
 import com.soyhenry.expenseapp.dto.request.ExpenseRequestDto;
+import com.soyhenry.expenseapp.dto.response.BatchExpenseResponseDto;
+import com.soyhenry.expenseapp.dto.response.CategoryExpenseSumResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpenseCategoryUsageResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpensePageCompactResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpensePageResponseDto;
 import com.soyhenry.expenseapp.dto.response.ExpenseResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpenseSeriesCompactResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpenseSeriesResponseDto;
+import com.soyhenry.expenseapp.dto.response.RollupRebuildResponseDto;
 import com.soyhenry.expenseapp.exception.BadRequestException;
 import com.soyhenry.expenseapp.exception.DAOException;
 import com.soyhenry.expenseapp.exception.ResourceNotFoundExcepcion;
 import com.soyhenry.expenseapp.service.ExpenseService;
+import com.soyhenry.expenseapp.tenant.TenantContext;
 import jakarta.validation.Valid;
 import lombok.Data;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -21,14 +38,20 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
 
+// Todos los endpoints operan sobre la cuenta indicada en el header X-Tenant-Id (ver TenantInterceptor)
 @RestController
 @RequestMapping("/api/v1/expense")
 public class ExpenseController {
+    private static final Logger log = LoggerFactory.getLogger(ExpenseController.class);
+    // Formatos binarios que se pueden pedir con el header Accept en el listado y en las series
+    private static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
 
     private final ExpenseService expenseService;
 
@@ -37,27 +60,43 @@ public class ExpenseController {
     }
 
     // El endpoint con POST envía un body definido por las propiedades del dto
+    // Con la escritura diferida activa la respuesta sale cuando el lote que incluye al gasto hizo commit
     @PostMapping()
-    public ResponseEntity<String> createExpense(@RequestBody @Valid ExpenseRequestDto expenseRequestDto) {
+    public CompletableFuture<ResponseEntity<String>> createExpense(@RequestBody @Valid ExpenseRequestDto expenseRequestDto) {
         try {
-            String response = expenseService.createExpense(expenseRequestDto);
-            System.out.println("ExpenseController: creando un gasto");
-            return ResponseEntity
+            CompletableFuture<String> response = expenseService.submitExpense(expenseRequestDto);
+            log.debug("Creando un gasto");
+            return response.thenApply(body -> ResponseEntity
                     .status(HttpStatus.CREATED)
-                    .body(response);
+                    .body(body));
         } catch (DataAccessException exDt) {
             throw new BadRequestException(exDt.getMessage());
         }
     }
 
 
+    // El endpoint con POST /batch recibe una lista de gastos y los registra en bloques.
+    // Cada ítem se valida por separado y la respuesta informa el resultado de cada uno
+    @PostMapping("/batch")
+    public ResponseEntity<BatchExpenseResponseDto> createExpenses(@RequestBody List<ExpenseRequestDto> expenseRequestDtos) {
+        if (expenseRequestDtos == null || expenseRequestDtos.isEmpty()) {
+            throw new BadRequestException("El lote de gastos está vacío");
+        }
+        BatchExpenseResponseDto response = expenseService.createExpenses(expenseRequestDtos);
+        log.debug("Creando un lote de {} gastos", response.getReceived());
+        return ResponseEntity
+                .status(response.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS)
+                .body(response);
+    }
+
+
     // El endpoint con PUT envía un body definido por las propiedades del dto para actualizar el gasto con id especificado por parametro
     @PutMapping("/update")
     public ResponseEntity<String> updateExpense(@RequestParam Long id,
                                                 @RequestBody @Valid ExpenseRequestDto expenseRequestDto) {
 
             String response = expenseService.updateExpense(id, expenseRequestDto);
-            System.out.println("ExpenseController: actualizando el gasto");
+            log.debug("Actualizando el gasto");
 
             return ResponseEntity
                     .status(HttpStatus.ACCEPTED)
@@ -68,7 +107,7 @@ public class ExpenseController {
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteExpense(@PathVariable Long id) throws DAOException {
         boolean deleted = expenseService.deleteExpense(id);
-        System.out.println("ExpenseController: eliminando el gasto");
+        log.debug("Eliminando el gasto");
         if (!deleted) {
             throw new ResourceNotFoundExcepcion("expense", "id", id);
         }
@@ -79,13 +118,19 @@ public class ExpenseController {
 
 
     // El endpoint GET con id definido en path recuperará un gasto especificado
+    // Los GET de consulta responden con ETag y Last-Modified según la versión de los datos;
+    // si el cliente ya tiene la versión vigente se responde 304 sin consultar la BD
     @GetMapping("/{id}")
-    public ResponseEntity<ExpenseResponseDto> getExpenseById(@PathVariable Long id) {
+    public ResponseEntity<ExpenseResponseDto> getExpenseById(@PathVariable Long id, WebRequest webRequest) {
+        DataVersion version = expenseService.getDataVersion();
+        if (webRequest.checkNotModified(version.tag(), version.lastModified())) {
+            return null;
+        }
         ExpenseResponseDto expenseResponseDto = expenseService.getExpenseById(id);
         if (expenseResponseDto == null) {
             throw new ResourceNotFoundExcepcion("expense", "id", id);
         }
-        System.out.println("ExpenseController: obteniendo el gasto con id: " + id);
+        log.debug("Obteniendo el gasto con id: {}", id);
         return ResponseEntity
                 .status(HttpStatus.OK)
                 .body(expenseResponseDto);
@@ -93,71 +138,193 @@ public class ExpenseController {
 
 
 
-    // El endpoint GET sin path ni parametro recuperará todos los gastos de la BD
+    // El endpoint GET sin path recupera los gastos de a una página, ordenados por fecha.
+    // Los filtros opcionales (from, to, category, minAmount, maxAmount) se aplican en la BD y
+    // para pedir la página siguiente se envía en after el nextCursor de la respuesta anterior
     @GetMapping()
-    public ResponseEntity<List<ExpenseResponseDto>> getExpenses() {
-        List<ExpenseResponseDto> responses = expenseService.getAllExpenses();
-        if(responses == null || responses.isEmpty()){
-            throw new ResourceNotFoundExcepcion("expense");
+    public ResponseEntity<ExpensePageResponseDto> getExpenses(ExpenseFilterRequestDto filterDto,
+                                                              @RequestParam(defaultValue = "50") int limit,
+                                                              @RequestParam(required = false) String after) {
+        ExpensePageResponseDto page = expenseService.getExpenses(filterDto, limit, after);
+        log.debug("Obteniendo una página de gastos");
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(page);
+    }
+
+    // Misma página en Smile o CBOR (Accept: application/x-jackson-smile o application/cbor), organizada por columnas
+    // y con cada categoría una sola vez. Pensado para los clientes móviles que sincronizan muchos gastos
+    @GetMapping(produces = {APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<ExpensePageCompactResponseDto> getExpensesCompact(ExpenseFilterRequestDto filterDto,
+                                                                            @RequestParam(defaultValue = "50") int limit,
+                                                                            @RequestParam(required = false) String after) {
+        ExpensePageCompactResponseDto page = expenseService.getExpensesCompact(filterDto, limit, after);
+        log.debug("Obteniendo una página de gastos en formato binario");
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(page);
+    }
+
+    // El endpoint GET /export descarga todos los gastos de la cuenta en NDJSON o CSV escribiendo fila por fila,
+    // sin cargar la tabla completa en memoria. El cuerpo se escribe en otro hilo, así que se le pasa la cuenta
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportExpenses(@RequestParam(defaultValue = "ndjson") String format) {
+        ExpenseExportFormat exportFormat;
+        try {
+            exportFormat = ExpenseExportFormat.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Formato de exportación inválido: " + format + ". Los formatos soportados son ndjson y csv");
         }
-        System.out.println("ExpenseController: obteniendo todos los gastos");
+        log.debug("Exportando todos los gastos en {}", format);
+
+        String tenantId = TenantContext.getTenantId();
+        StreamingResponseBody body = outputStream -> {
+            TenantContext.setTenantId(tenantId);
+            try {
+                expenseService.exportExpenses(exportFormat, outputStream);
+            } finally {
+                TenantContext.clear();
+            }
+        };
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(responses);
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=expenses." + exportFormat.getFileExtension())
+                .body(body);
     }
 
     // Nuevo endpoint para obtener la suma de gastos por mes
+    // La respuesta es asíncrona: el hilo del servidor se libera mientras se calcula la suma, y los requests
+    // simultáneos por el mismo mes esperan un único cálculo
     @GetMapping("/sum-by-month")
-    public ResponseEntity<MonthlyExpenseSumResponseDto> getExpenseSumByMonth(@RequestParam int year, @RequestParam int month) {
-        MonthlyExpenseSumResponseDto sum = expenseService.getExpenseSumByMonth(year, month);
-        System.out.println("ExpenseController: obteniendo la suma de gastos para el mes " + month + " del año " + year);
-
-        if (sum != null) {
-            return ResponseEntity.status(HttpStatus.OK).body(sum);
-        } else {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MonthlyExpenseSumResponseDto(year, month, 0.0));
+    public CompletableFuture<ResponseEntity<MonthlyExpenseSumResponseDto>> getExpenseSumByMonth(@RequestParam int year,
+                                                                                                @RequestParam int month,
+                                                                                                WebRequest webRequest) {
+        // Sólo las escrituras de ese mes cambian su versión, así que los meses pasados siguen respondiendo 304
+        DataVersion version = expenseService.getDataVersion(year, month);
+        if (webRequest.checkNotModified(version.tag(), version.lastModified())) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
         }
+        log.debug("Obteniendo la suma de gastos para el mes {} del año {}", month, year);
+        return expenseService.getExpenseSumByMonthAsync(year, month).thenApply(sum -> {
+            if (sum != null) {
+                return ResponseEntity.status(HttpStatus.OK).body(sum);
+            } else {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new MonthlyExpenseSumResponseDto(year, month, 0.0));
+            }
+        });
     }
 
     // Nuevo endpoint para obtener la suma total de gastos de todos los meses
+    // Asíncrono y con los requests simultáneos agrupados en un único cálculo, como /sum-by-month
     @GetMapping("/total-sum")
-    public ResponseEntity<Double> getTotalExpenseSum() {
-        Double totalSum = expenseService.getTotalExpenseSum();
-        System.out.println("ExpenseController: obteniendo la suma total de gastos");
-
-        if (totalSum != null) {
-            return ResponseEntity.status(HttpStatus.OK).body(totalSum);
-        } else {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(0.0);
+    public CompletableFuture<ResponseEntity<Double>> getTotalExpenseSum(WebRequest webRequest) {
+        DataVersion version = expenseService.getDataVersion();
+        if (webRequest.checkNotModified(version.tag(), version.lastModified())) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.NOT_MODIFIED).build());
         }
+        log.debug("Obteniendo la suma total de gastos");
+        return expenseService.getTotalExpenseSumAsync().thenApply(totalSum -> {
+            if (totalSum != null) {
+                return ResponseEntity.status(HttpStatus.OK).body(totalSum);
+            } else {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(0.0);
+            }
+        });
     }
     @GetMapping("/categories")
-    public ResponseEntity<Set<String>> getExpenseCategories() {
-        List<ExpenseResponseDto> responses = expenseService.getAllExpenses();
-        System.out.println("ExpenseController: obteniendo todos los nombres de categorías");
-
-        Set<String> categoryNames = responses.stream()
-                .map(expense -> expense.getCategoryDto().getName())
-                .collect(Collectors.toSet());
+    public ResponseEntity<Set<String>> getExpenseCategories(WebRequest webRequest) {
+        // Las categorías se crean con los gastos y con los gastos especiales; su versión avanza con cada alta confirmada
+        DataVersion version = expenseService.getCategoryVersion();
+        if (webRequest.checkNotModified(version.tag(), version.lastModified())) {
+            return null;
+        }
+        Set<String> categoryNames = expenseService.getExpenseCategoryNames();
+        log.debug("Obteniendo todos los nombres de categorías");
 
         return ResponseEntity
                 .status(HttpStatus.OK)
                 .body(categoryNames);
     }
+
+    // El endpoint GET /categories/usage devuelve cada categoría con la cantidad de gastos que la usan
+    @GetMapping("/categories/usage")
+    public ResponseEntity<List<ExpenseCategoryUsageResponseDto>> getExpenseCategoryUsage() {
+        List<ExpenseCategoryUsageResponseDto> usage = expenseService.getExpenseCategoryUsage();
+        log.debug("Obteniendo el uso de las categorías");
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(usage);
+    }
+
+    // El endpoint GET /category/{name} devuelve el total y la cantidad de gastos de la categoría,
+    // opcionalmente acotados a un rango de fechas (from y to en formato dd/MM/yyyy)
     @GetMapping("/category/{name}")
-    public ResponseEntity<Double> getExpensesByCategoryName(@PathVariable String name) {
-        Double expenseResponseDtos = expenseService.getExpensesByCategoryName(name);
-        System.out.println("ExpenseController: obteniendo gastos con categoría: " + name);
+    public ResponseEntity<CategoryExpenseSumResponseDto> getExpenseSumByCategory(@PathVariable String name,
+                                                                                 @RequestParam(required = false) String from,
+                                                                                 @RequestParam(required = false) String to) {
+        CategoryExpenseSumResponseDto sum = expenseService.getExpenseSumByCategory(name, from, to);
+        log.debug("Obteniendo la suma de gastos con categoría: {}", name);
 
-        if (expenseResponseDtos.isNaN()) {
-            return ResponseEntity.notFound().build();
-        }
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(sum);
+    }
+
+    // El endpoint GET /series devuelve los totales por día, semana o mes entre from y to (dd/MM/yyyy),
+    // con los períodos sin gastos en cero. Con groupBy=category devuelve una serie por categoría
+    @GetMapping("/series")
+    public ResponseEntity<ExpenseSeriesResponseDto> getExpenseSeries(@RequestParam String from,
+                                                                     @RequestParam String to,
+                                                                     @RequestParam(defaultValue = "month") String granularity,
+                                                                     @RequestParam(required = false) String groupBy) {
+        ExpenseSeriesResponseDto series = expenseService.getExpenseSeries(from, to, parseGranularity(granularity), isGroupByCategory(groupBy));
+        log.debug("Obteniendo la serie de gastos por {} entre {} y {}", granularity, from, to);
+
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(series);
+    }
+
+    // Misma serie en Smile o CBOR, con los períodos una sola vez y los totales de cada serie en columnas
+    @GetMapping(value = "/series", produces = {APPLICATION_SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<ExpenseSeriesCompactResponseDto> getExpenseSeriesCompact(@RequestParam String from,
+                                                                                   @RequestParam String to,
+                                                                                   @RequestParam(defaultValue = "month") String granularity,
+                                                                                   @RequestParam(required = false) String groupBy) {
+        ExpenseSeriesCompactResponseDto series = expenseService.getExpenseSeriesCompact(from, to, parseGranularity(granularity),
+                isGroupByCategory(groupBy));
+        log.debug("Obteniendo la serie de gastos por {} entre {} y {} en formato binario", granularity, from, to);
 
         return ResponseEntity
                 .status(HttpStatus.OK)
-                .body(expenseResponseDtos);
+                .body(series);
     }
 
+    private SeriesGranularity parseGranularity(String granularity) {
+        try {
+            return SeriesGranularity.valueOf(granularity.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Granularidad inválida: " + granularity + ". Las soportadas son day, week y month");
+        }
+    }
 
+    private boolean isGroupByCategory(String groupBy) {
+        if (groupBy != null && !groupBy.equalsIgnoreCase("category")) {
+            throw new BadRequestException("Agrupamiento inválido: " + groupBy + ". El único soportado es category");
+        }
+        return groupBy != null;
+    }
+
+    // Recalcula los acumulados por mes y categoría desde la tabla de gastos e informa los desvíos encontrados
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<RollupRebuildResponseDto> rebuildExpenseRollup() {
+        RollupRebuildResponseDto result = expenseService.rebuildExpenseRollup();
+        log.debug("Reconstruyendo los acumulados de gastos");
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(result);
+    }
 
 }
\ No newline at end of file
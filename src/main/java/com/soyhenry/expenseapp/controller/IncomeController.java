@@ -0,0 +1,94 @@
+package com.soyhenry.expenseapp.controller;
+
+import com.soyhenry.expenseapp.dto.IncomeDto;
+import com.soyhenry.expenseapp.dto.response.BalanceResponseDto;
+import com.soyhenry.expenseapp.dto.response.IncomeResponseDto;
+import com.soyhenry.expenseapp.exception.ResourceNotFoundExcepcion;
+import com.soyhenry.expenseapp.service.IncomeService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// Ingresos y balance de la cuenta indicada en el header X-Tenant-Id (ver TenantInterceptor)
+@RestController
+@RequestMapping("/api/v1/income")
+public class IncomeController {
+    private static final Logger log = LoggerFactory.getLogger(IncomeController.class);
+
+    private final IncomeService incomeService;
+
+    public IncomeController(IncomeService incomeService) {
+        this.incomeService = incomeService;
+    }
+
+    // El endpoint con POST envía un body definido por las propiedades del dto
+    @PostMapping()
+    public ResponseEntity<String> createIncome(@RequestBody @Valid IncomeDto incomeDto) {
+        String response = incomeService.createIncome(incomeDto);
+        log.debug("Creando un ingreso");
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(response);
+    }
+
+    // El endpoint con PUT actualiza el ingreso con el id especificado por path
+    @PutMapping("/{id}")
+    public ResponseEntity<String> updateIncome(@PathVariable Long id, @RequestBody @Valid IncomeDto incomeDto) {
+        String response = incomeService.updateIncome(id, incomeDto);
+        log.debug("Actualizando el ingreso");
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(response);
+    }
+
+    // El endpoint DELETE eliminará un ingreso con el id especificado por path
+    @DeleteMapping("/{id}")
+    public ResponseEntity<String> deleteIncome(@PathVariable Long id) {
+        if (!incomeService.deleteIncome(id)) {
+            throw new ResourceNotFoundExcepcion("ingreso", "id", id);
+        }
+        log.debug("Eliminando el ingreso");
+        return ResponseEntity
+                .status(HttpStatus.GONE)
+                .body("Se eliminó el ingreso con id: " + id);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<IncomeResponseDto> getIncomeById(@PathVariable Long id) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(incomeService.getIncomeById(id));
+    }
+
+    // Ingresos entre dos fechas (dd/MM/yyyy) ordenados por fecha, con un máximo de limit registros
+    @GetMapping()
+    public ResponseEntity<List<IncomeResponseDto>> getIncomes(@RequestParam String from,
+                                                              @RequestParam String to,
+                                                              @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(incomeService.getIncomes(from, to, limit));
+    }
+
+    // Ingresos, gastos (incluidos los gastos especiales) y balance entre dos fechas (dd/MM/yyyy) inclusive
+    @GetMapping("/balance")
+    public ResponseEntity<BalanceResponseDto> getBalance(@RequestParam String from, @RequestParam String to) {
+        log.debug("Calculando el balance entre {} y {}", from, to);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(incomeService.getBalance(from, to));
+    }
+}
@@ -0,0 +1,83 @@
+package com.soyhenry.expenseapp.controller;
+
+import com.soyhenry.expenseapp.dto.SpecialExpenseDto;
+import com.soyhenry.expenseapp.dto.response.SpecialExpenseResponseDto;
+import com.soyhenry.expenseapp.dto.response.SpecialExpenseSearchResponseDto;
+import com.soyhenry.expenseapp.exception.ResourceNotFoundExcepcion;
+import com.soyhenry.expenseapp.service.SpecialExpenseService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+// Gastos especiales de la cuenta indicada en el header X-Tenant-Id (ver TenantInterceptor)
+@RestController
+@RequestMapping("/api/v1/special-expense")
+public class SpecialExpenseController {
+    private static final Logger log = LoggerFactory.getLogger(SpecialExpenseController.class);
+
+    private final SpecialExpenseService specialExpenseService;
+
+    public SpecialExpenseController(SpecialExpenseService specialExpenseService) {
+        this.specialExpenseService = specialExpenseService;
+    }
+
+    // El endpoint con POST envía un body definido por las propiedades del dto y responde con el id asignado
+    @PostMapping()
+    public ResponseEntity<String> createSpecialExpense(@RequestBody @Valid SpecialExpenseDto specialExpenseDto) {
+        Long id = specialExpenseService.createSpecialExpense(specialExpenseDto);
+        log.debug("Creando el gasto especial {}", id);
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body("Se registró el gasto especial con id: " + id);
+    }
+
+    // Busca por motivo y categoría; todos los términos deben aparecer y cada uno coincide también como prefijo
+    @GetMapping("/search")
+    public ResponseEntity<SpecialExpenseSearchResponseDto> searchSpecialExpenses(@RequestParam("q") String query,
+                                                                                 @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(specialExpenseService.searchSpecialExpenses(query, limit));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<SpecialExpenseResponseDto> getSpecialExpenseById(@PathVariable Long id) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(specialExpenseService.getSpecialExpenseById(id));
+    }
+
+    // El endpoint con PUT actualiza el gasto especial con el id especificado por path
+    @PutMapping("/{id}")
+    public ResponseEntity<String> updateSpecialExpense(@PathVariable Long id,
+                                                       @RequestBody @Valid SpecialExpenseDto specialExpenseDto) {
+        String response = specialExpenseService.updateSpecialExpense(id, specialExpenseDto);
+        log.debug("Actualizando el gasto especial");
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .body(response);
+    }
+
+    // El endpoint DELETE eliminará un gasto especial con el id especificado por path
+    @DeleteMapping("/{id}")
+    public ResponseEntity<String> deleteSpecialExpense(@PathVariable Long id) {
+        if (!specialExpenseService.deleteSpecialExpense(id)) {
+            throw new ResourceNotFoundExcepcion("gasto especial", "id", id);
+        }
+        log.debug("Eliminando el gasto especial");
+        return ResponseEntity
+                .status(HttpStatus.GONE)
+                .body("Se eliminó el gasto especial con id: " + id);
+    }
+}
@@ -0,0 +1,41 @@
+package com.soyhenry.expenseapp.domain;
+
+import com.soyhenry.expenseapp.exception.BadRequestException;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+// Formato de las fechas y montos que recibe y devuelve la API. Lo usan todos los servicios para que un dato faltante
+// o mal escrito responda siempre el mismo 400
+public final class ApiFormats {
+    // Formato de fecha de los DTOs; en la BD la fecha se guarda como DATE
+    public static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private ApiFormats() {
+    }
+
+    public static LocalDate parseDate(String date) {
+        if (date == null) {
+            throw new BadRequestException("Fecha requerida. El formato esperado es dd/MM/yyyy");
+        }
+        try {
+            return LocalDate.parse(date, DATE_FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestException("Fecha inválida: " + date + ". El formato esperado es dd/MM/yyyy");
+        }
+    }
+
+    // Monto recibido a los centavos que se persisten, con el redondeo indicado (ver Money.toCents)
+    public static long parseAmount(Double amount, RoundingMode roundingMode) {
+        if (amount == null) {
+            throw new BadRequestException("Monto requerido");
+        }
+        try {
+            return Money.toCents(amount, roundingMode);
+        } catch (ArithmeticException | NumberFormatException e) {
+            throw new BadRequestException("Monto inválido: " + amount);
+        }
+    }
+}
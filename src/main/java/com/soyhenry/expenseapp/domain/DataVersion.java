@@ -0,0 +1,6 @@
+package com.soyhenry.expenseapp.domain;
+
+// Versión de un conjunto de datos para las respuestas condicionales: tag cambia con cada escritura que lo afecta
+// y lastModified es el instante (en milisegundos) de esa escritura
+public record DataVersion(String tag, long lastModified) {
+}
@@ -1,17 +1,20 @@
 package com.soyhenry.expenseapp.domain;
 
+import java.time.LocalDate;
+
 public class Expense {
     private Long id;
-    private Double amount;
+    // Monto en centavos (ver Money)
+    private long amountCents;
     private Long categoryId;
     private String categoryName;
-    private String date;
+    private LocalDate date;
 
     public Expense() {
     }
 
-    public Expense(Double amount, Long categoryId, String categoryName, String date) {
-        this.amount = amount;
+    public Expense(long amountCents, Long categoryId, String categoryName, LocalDate date) {
+        this.amountCents = amountCents;
         this.categoryId = categoryId;
         this.categoryName = categoryName;
         this.date = date;
@@ -25,19 +28,19 @@ public class Expense {
         this.id = id;
     }
 
-    public Double getAmount() {
-        return amount;
+    public long getAmountCents() {
+        return amountCents;
     }
 
-    public void setAmount(Double amount) {
-        this.amount = amount;
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
     }
 
     public Long getCategoryId() {
         return categoryId;
     }
 
-    public void setCategoryId(Long category) {
+    public void setCategoryId(Long categoryId) {
         this.categoryId = categoryId;
     }
 
@@ -49,11 +52,11 @@ public class Expense {
         this.categoryName = categoryName;
     }
 
-    public String getDate() {
+    public LocalDate getDate() {
         return date;
     }
 
-    public void setDate(String date) {
+    public void setDate(LocalDate date) {
         this.date = date;
     }
 
@@ -61,10 +64,10 @@ public class Expense {
     public String toString() {
         return "Expense{" +
             "id=" + id +
-            ", amount=" + amount +
+            ", amountCents=" + amountCents +
             ", categoryId=" + categoryId +
             ", categoryName='" + categoryName + '\'' +
-            ", date='" + date + '\'' +
+            ", date=" + date +
             '}';
     }
 }
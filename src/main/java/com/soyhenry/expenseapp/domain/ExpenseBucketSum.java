@@ -0,0 +1,8 @@
+package com.soyhenry.expenseapp.domain;
+
+import java.time.LocalDate;
+
+// Total y cantidad de gastos de un período (día o primer día del mes) y, si se agrupó por categoría, de una categoría.
+// Sin agrupar, categoryId es 0 y categoryName null. El total va en centavos
+public record ExpenseBucketSum(LocalDate period, long categoryId, String categoryName, long totalCents, long expenseCount) {
+}
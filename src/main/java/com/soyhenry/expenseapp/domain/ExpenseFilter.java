@@ -0,0 +1,87 @@
+package com.soyhenry.expenseapp.domain;
+
+import java.time.LocalDate;
+
+// Criterios de búsqueda de gastos ya convertidos a los tipos de la BD.
+// Los campos nulos no filtran; afterDate/afterId es la posición (date, id) del último gasto de la página anterior
+public class ExpenseFilter {
+    private LocalDate from;
+    private LocalDate to;
+    private Long categoryId;
+    private Long minAmountCents;
+    private Long maxAmountCents;
+    private LocalDate afterDate;
+    private Long afterId;
+
+    public ExpenseFilter() {
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public Long getMinAmountCents() {
+        return minAmountCents;
+    }
+
+    public void setMinAmountCents(Long minAmountCents) {
+        this.minAmountCents = minAmountCents;
+    }
+
+    public Long getMaxAmountCents() {
+        return maxAmountCents;
+    }
+
+    public void setMaxAmountCents(Long maxAmountCents) {
+        this.maxAmountCents = maxAmountCents;
+    }
+
+    public LocalDate getAfterDate() {
+        return afterDate;
+    }
+
+    public void setAfterDate(LocalDate afterDate) {
+        this.afterDate = afterDate;
+    }
+
+    public Long getAfterId() {
+        return afterId;
+    }
+
+    public void setAfterId(Long afterId) {
+        this.afterId = afterId;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpenseFilter{" +
+                "from=" + from +
+                ", to=" + to +
+                ", categoryId=" + categoryId +
+                ", minAmountCents=" + minAmountCents +
+                ", maxAmountCents=" + maxAmountCents +
+                ", afterDate=" + afterDate +
+                ", afterId=" + afterId +
+                '}';
+    }
+}
@@ -0,0 +1,72 @@
+package com.soyhenry.expenseapp.domain;
+
+public class ExpenseRollup {
+    private int year;
+    private int month;
+    private Long categoryId;
+    // Total del bucket en centavos
+    private long totalCents;
+    private long expenseCount;
+
+    public ExpenseRollup() {
+    }
+
+    public ExpenseRollup(int year, int month, Long categoryId, long totalCents, long expenseCount) {
+        this.year = year;
+        this.month = month;
+        this.categoryId = categoryId;
+        this.totalCents = totalCents;
+        this.expenseCount = expenseCount;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    public void setMonth(int month) {
+        this.month = month;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public long getTotalCents() {
+        return totalCents;
+    }
+
+    public void setTotalCents(long totalCents) {
+        this.totalCents = totalCents;
+    }
+
+    public long getExpenseCount() {
+        return expenseCount;
+    }
+
+    public void setExpenseCount(long expenseCount) {
+        this.expenseCount = expenseCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpenseRollup{" +
+                "year=" + year +
+                ", month=" + month +
+                ", categoryId=" + categoryId +
+                ", totalCents=" + totalCents +
+                ", expenseCount=" + expenseCount +
+                '}';
+    }
+}
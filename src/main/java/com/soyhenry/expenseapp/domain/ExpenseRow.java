@@ -0,0 +1,8 @@
+package com.soyhenry.expenseapp.domain;
+
+import java.time.LocalDate;
+
+// Modelo de sólo lectura para los listados: campos primitivos e inmutables, sin los wrappers de Expense.
+// El monto va en centavos, como en Expense
+public record ExpenseRow(long id, long amountCents, long categoryId, String categoryName, LocalDate date) {
+}
@@ -1,21 +1,66 @@
 package com.soyhenry.expenseapp.domain;
 
-public class Income {
+import java.time.LocalDate;
 
-    private double amount;
+public class Income {
+    private Long id;
+    // Monto en centavos (ver Money)
+    private long amountCents;
+    private String description;
+    private LocalDate date;
 
     public Income() {
     }
 
-    public Income(double amount) {
-        this.amount = amount;
+    public Income(long amountCents) {
+        this.amountCents = amountCents;
+    }
+
+    public Income(long amountCents, String description, LocalDate date) {
+        this.amountCents = amountCents;
+        this.description = description;
+        this.date = date;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public LocalDate getDate() {
+        return date;
     }
 
-    public double getAmount() {
-        return amount;
+    public void setDate(LocalDate date) {
+        this.date = date;
     }
 
-    public void setAmount(double amount) {
-        this.amount = amount;
+    @Override
+    public String toString() {
+        return "Income{" +
+            "id=" + id +
+            ", amountCents=" + amountCents +
+            ", description='" + description + '\'' +
+            ", date=" + date +
+            '}';
     }
 }
@@ -0,0 +1,24 @@
+package com.soyhenry.expenseapp.domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Los montos de gastos e ingresos se guardan y se suman como centavos en un long, así los totales son exactos.
+// La API sigue recibiendo y devolviendo montos decimales: la conversión se hace sólo al mapear los DTOs
+public final class Money {
+    private static final int SCALE = 2;
+
+    private Money() {
+    }
+
+    // Monto recibido en la API a centavos con el redondeo indicado. Se pasa por el decimal que escribió el cliente
+    // (Double.toString) para que 0.1 sea 10 centavos y no 9,999...
+    public static long toCents(double amount, RoundingMode roundingMode) {
+        return BigDecimal.valueOf(amount).setScale(SCALE, roundingMode).unscaledValue().longValueExact();
+    }
+
+    // Centavos a monto para la respuesta: el double más cercano al decimal exacto, que se serializa con esos dígitos
+    public static double toAmount(long cents) {
+        return cents / 100.0;
+    }
+}
@@ -0,0 +1,78 @@
+package com.soyhenry.expenseapp.domain;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// Sumas acumuladas en centavos por mes de los ingresos y los gastos de una cuenta, desde el primer mes con datos.
+// incomes[i] es el total de ingresos de los i meses anteriores a firstMonth + i, así que el total de cualquier
+// rango de meses es una resta entre dos posiciones, sin importar cuántos meses abarque
+public final class MonthlyPrefixSums {
+    private static final MonthlyPrefixSums EMPTY = new MonthlyPrefixSums(null, new long[1], new long[1]);
+
+    private final YearMonth firstMonth;
+    private final long[] incomes;
+    private final long[] expenses;
+
+    private MonthlyPrefixSums(YearMonth firstMonth, long[] incomes, long[] expenses) {
+        this.firstMonth = firstMonth;
+        this.incomes = incomes;
+        this.expenses = expenses;
+    }
+
+    public static MonthlyPrefixSums of(List<MonthlyTotal> monthlyIncomes, List<MonthlyTotal> monthlyExpenses) {
+        YearMonth first = null;
+        YearMonth last = null;
+        for (List<MonthlyTotal> totals : List.of(monthlyIncomes, monthlyExpenses)) {
+            for (MonthlyTotal total : totals) {
+                if (first == null || total.month().isBefore(first)) {
+                    first = total.month();
+                }
+                if (last == null || total.month().isAfter(last)) {
+                    last = total.month();
+                }
+            }
+        }
+        if (first == null) {
+            return EMPTY;
+        }
+
+        int months = (int) ChronoUnit.MONTHS.between(first, last) + 1;
+        long[] incomes = new long[months + 1];
+        long[] expenses = new long[months + 1];
+        for (MonthlyTotal total : monthlyIncomes) {
+            incomes[(int) ChronoUnit.MONTHS.between(first, total.month()) + 1] += total.totalCents();
+        }
+        for (MonthlyTotal total : monthlyExpenses) {
+            expenses[(int) ChronoUnit.MONTHS.between(first, total.month()) + 1] += total.totalCents();
+        }
+        for (int i = 1; i <= months; i++) {
+            incomes[i] += incomes[i - 1];
+            expenses[i] += expenses[i - 1];
+        }
+        return new MonthlyPrefixSums(first, incomes, expenses);
+    }
+
+    // Total de ingresos en centavos de los meses from..to inclusive
+    public long incomeBetween(YearMonth from, YearMonth to) {
+        return between(incomes, from, to);
+    }
+
+    // Total de gastos en centavos de los meses from..to inclusive
+    public long expenseBetween(YearMonth from, YearMonth to) {
+        return between(expenses, from, to);
+    }
+
+    private long between(long[] prefix, YearMonth from, YearMonth to) {
+        if (firstMonth == null || to.isBefore(from)) {
+            return 0;
+        }
+        return prefix[position(to.plusMonths(1))] - prefix[position(from)];
+    }
+
+    // Meses entre firstMonth y month, acotados al arreglo: es la posición de month en las sumas acumuladas
+    private int position(YearMonth month) {
+        long offset = ChronoUnit.MONTHS.between(firstMonth, month);
+        return (int) Math.max(0, Math.min(offset, incomes.length - 1));
+    }
+}
@@ -0,0 +1,7 @@
+package com.soyhenry.expenseapp.domain;
+
+import java.time.YearMonth;
+
+// Total en centavos de un mes, leído de una tabla de acumulados
+public record MonthlyTotal(YearMonth month, long totalCents) {
+}
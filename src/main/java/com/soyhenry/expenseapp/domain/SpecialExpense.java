@@ -1,13 +1,15 @@
 package com.soyhenry.expenseapp.domain;
 
+import java.time.LocalDate;
+
 public class SpecialExpense extends Expense {
     private String reason;
 
     public SpecialExpense() {
     }
 
-    public SpecialExpense(Double amount, Long categoryId, String categoryName, String date, String reason) {
-        super(amount, categoryId, categoryName, date);
+    public SpecialExpense(long amountCents, Long categoryId, String categoryName, LocalDate date, String reason) {
+        super(amountCents, categoryId, categoryName, date);
         this.reason = reason;
     }
 
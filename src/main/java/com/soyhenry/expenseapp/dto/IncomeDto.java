@@ -1,4 +1,59 @@
 package com.soyhenry.expenseapp.dto;
 
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
 public class IncomeDto {
+
+    @NotNull(message = "Monto requerido")
+    private Double amount;
+
+    @Size(max = 100, message = "La descripción no puede superar los 100 caracteres")
+    private String description;
+
+    @NotEmpty(message = "Fecha requerida")
+    private String date;
+
+    public IncomeDto() {
+    }
+
+    public IncomeDto(Double amount, String description, String date) {
+        this.amount = amount;
+        this.description = description;
+        this.date = date;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public void setDate(String date) {
+        this.date = date;
+    }
+
+    @Override
+    public String toString() {
+        return "IncomeDto{" +
+                "amount=" + amount +
+                ", description='" + description + '\'' +
+                ", date='" + date + '\'' +
+                '}';
+    }
 }
@@ -0,0 +1,7 @@
+package com.soyhenry.expenseapp.dto;
+
+public enum SeriesGranularity {
+    DAY,
+    WEEK,
+    MONTH
+}
@@ -1,4 +1,74 @@
 package com.soyhenry.expenseapp.dto;
 
+import com.soyhenry.expenseapp.dto.request.ExpenseCategoryRequestDto;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
 public class SpecialExpenseDto {
+
+    @NotNull(message = "Monto requerido")
+    private Double amount;
+
+    @NotNull(message = "Categoría requerida")
+    private ExpenseCategoryRequestDto categoryDto;
+
+    @NotEmpty(message = "Fecha requerida")
+    private String date;
+
+    @NotEmpty(message = "Motivo requerido")
+    @Size(max = 255, message = "El motivo no puede superar los 255 caracteres")
+    private String reason;
+
+    public SpecialExpenseDto() {
+    }
+
+    public SpecialExpenseDto(Double amount, ExpenseCategoryRequestDto categoryDto, String date, String reason) {
+        this.amount = amount;
+        this.categoryDto = categoryDto;
+        this.date = date;
+        this.reason = reason;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    public ExpenseCategoryRequestDto getCategoryDto() {
+        return categoryDto;
+    }
+
+    public void setCategoryDto(ExpenseCategoryRequestDto categoryDto) {
+        this.categoryDto = categoryDto;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public void setDate(String date) {
+        this.date = date;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    @Override
+    public String toString() {
+        return "SpecialExpenseDto{" +
+                "amount=" + amount +
+                ", categoryDto=" + categoryDto +
+                ", date='" + date + '\'' +
+                ", reason='" + reason + '\'' +
+                '}';
+    }
 }
@@ -0,0 +1,71 @@
+package com.soyhenry.expenseapp.dto.request;
+
+public class ExpenseFilterRequestDto {
+    private String from;
+    private String to;
+    private String category;
+    private Double minAmount;
+    private Double maxAmount;
+
+    public ExpenseFilterRequestDto() {
+    }
+
+    public ExpenseFilterRequestDto(String from, String to, String category, Double minAmount, Double maxAmount) {
+        this.from = from;
+        this.to = to;
+        this.category = category;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public Double getMinAmount() {
+        return minAmount;
+    }
+
+    public void setMinAmount(Double minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public Double getMaxAmount() {
+        return maxAmount;
+    }
+
+    public void setMaxAmount(Double maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpenseFilterRequestDto{" +
+                "from='" + from + '\'' +
+                ", to='" + to + '\'' +
+                ", category='" + category + '\'' +
+                ", minAmount=" + minAmount +
+                ", maxAmount=" + maxAmount +
+                '}';
+    }
+}
@@ -0,0 +1,72 @@
+package com.soyhenry.expenseapp.dto.response;
+
+public class BalanceResponseDto {
+    private String from;
+    private String to;
+    private double totalIncome;
+    private double totalExpense;
+    // Ingresos menos gastos del período
+    private double balance;
+
+    public BalanceResponseDto() {
+    }
+
+    public BalanceResponseDto(String from, String to, double totalIncome, double totalExpense, double balance) {
+        this.from = from;
+        this.to = to;
+        this.totalIncome = totalIncome;
+        this.totalExpense = totalExpense;
+        this.balance = balance;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public double getTotalIncome() {
+        return totalIncome;
+    }
+
+    public void setTotalIncome(double totalIncome) {
+        this.totalIncome = totalIncome;
+    }
+
+    public double getTotalExpense() {
+        return totalExpense;
+    }
+
+    public void setTotalExpense(double totalExpense) {
+        this.totalExpense = totalExpense;
+    }
+
+    public double getBalance() {
+        return balance;
+    }
+
+    public void setBalance(double balance) {
+        this.balance = balance;
+    }
+
+    @Override
+    public String toString() {
+        return "BalanceResponseDto{" +
+                "from='" + from + '\'' +
+                ", to='" + to + '\'' +
+                ", totalIncome=" + totalIncome +
+                ", totalExpense=" + totalExpense +
+                ", balance=" + balance +
+                '}';
+    }
+}
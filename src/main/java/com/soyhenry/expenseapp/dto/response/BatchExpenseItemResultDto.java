@@ -0,0 +1,49 @@
+package com.soyhenry.expenseapp.dto.response;
+
+public class BatchExpenseItemResultDto {
+    private int index;
+    private boolean created;
+    private String message;
+
+    public BatchExpenseItemResultDto() {
+    }
+
+    public BatchExpenseItemResultDto(int index, boolean created, String message) {
+        this.index = index;
+        this.created = created;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public boolean isCreated() {
+        return created;
+    }
+
+    public void setCreated(boolean created) {
+        this.created = created;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchExpenseItemResultDto{" +
+                "index=" + index +
+                ", created=" + created +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
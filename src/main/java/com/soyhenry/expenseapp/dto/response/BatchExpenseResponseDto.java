@@ -0,0 +1,61 @@
+package com.soyhenry.expenseapp.dto.response;
+
+import java.util.List;
+
+public class BatchExpenseResponseDto {
+    private int received;
+    private int created;
+    private int failed;
+    private List<BatchExpenseItemResultDto> items;
+
+    public BatchExpenseResponseDto() {
+    }
+
+    public BatchExpenseResponseDto(List<BatchExpenseItemResultDto> items) {
+        this.items = items;
+        this.received = items.size();
+        this.created = (int) items.stream().filter(BatchExpenseItemResultDto::isCreated).count();
+        this.failed = received - created;
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BatchExpenseItemResultDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<BatchExpenseItemResultDto> items) {
+        this.items = items;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchExpenseResponseDto{" +
+                "received=" + received +
+                ", created=" + created +
+                ", failed=" + failed +
+                '}';
+    }
+}
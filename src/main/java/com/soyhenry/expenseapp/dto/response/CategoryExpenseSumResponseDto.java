@@ -0,0 +1,49 @@
+package com.soyhenry.expenseapp.dto.response;
+
+public class CategoryExpenseSumResponseDto {
+    private String categoryName;
+    private double totalAmount;
+    private long expenseCount;
+
+    public CategoryExpenseSumResponseDto() {
+    }
+
+    public CategoryExpenseSumResponseDto(String categoryName, double totalAmount, long expenseCount) {
+        this.categoryName = categoryName;
+        this.totalAmount = totalAmount;
+        this.expenseCount = expenseCount;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public long getExpenseCount() {
+        return expenseCount;
+    }
+
+    public void setExpenseCount(long expenseCount) {
+        this.expenseCount = expenseCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CategoryExpenseSumResponseDto{" +
+                "categoryName='" + categoryName + '\'' +
+                ", totalAmount=" + totalAmount +
+                ", expenseCount=" + expenseCount +
+                '}';
+    }
+}
@@ -0,0 +1,49 @@
+package com.soyhenry.expenseapp.dto.response;
+
+public class ExpenseCategoryUsageResponseDto {
+    private Long id;
+    private String name;
+    private long expenseCount;
+
+    public ExpenseCategoryUsageResponseDto() {
+    }
+
+    public ExpenseCategoryUsageResponseDto(Long id, String name, long expenseCount) {
+        this.id = id;
+        this.name = name;
+        this.expenseCount = expenseCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getExpenseCount() {
+        return expenseCount;
+    }
+
+    public void setExpenseCount(long expenseCount) {
+        this.expenseCount = expenseCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpenseCategoryUsageResponseDto{" +
+            "id=" + id +
+            ", name='" + name + '\'' +
+            ", expenseCount=" + expenseCount +
+            '}';
+    }
+}
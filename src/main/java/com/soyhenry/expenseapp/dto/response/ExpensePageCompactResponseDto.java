@@ -0,0 +1,89 @@
+package com.soyhenry.expenseapp.dto.response;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Página de gastos para los formatos binarios (Smile y CBOR), organizada por columnas: el gasto i está formado
+// por ids[i], amounts[i], categoryIndexes[i] y dates[i]. Cada categoría se envía una sola vez en categoryNames
+// y los gastos la referencian por su posición. Las fechas son días desde 1970-01-01
+public class ExpensePageCompactResponseDto {
+    private List<String> categoryNames;
+    private long[] ids;
+    private double[] amounts;
+    private int[] categoryIndexes;
+    private int[] dates;
+    private String nextCursor;
+
+    public ExpensePageCompactResponseDto() {
+    }
+
+    public ExpensePageCompactResponseDto(List<String> categoryNames, long[] ids, double[] amounts,
+                                         int[] categoryIndexes, int[] dates, String nextCursor) {
+        this.categoryNames = categoryNames;
+        this.ids = ids;
+        this.amounts = amounts;
+        this.categoryIndexes = categoryIndexes;
+        this.dates = dates;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<String> getCategoryNames() {
+        return categoryNames;
+    }
+
+    public void setCategoryNames(List<String> categoryNames) {
+        this.categoryNames = categoryNames;
+    }
+
+    public long[] getIds() {
+        return ids;
+    }
+
+    public void setIds(long[] ids) {
+        this.ids = ids;
+    }
+
+    public double[] getAmounts() {
+        return amounts;
+    }
+
+    public void setAmounts(double[] amounts) {
+        this.amounts = amounts;
+    }
+
+    public int[] getCategoryIndexes() {
+        return categoryIndexes;
+    }
+
+    public void setCategoryIndexes(int[] categoryIndexes) {
+        this.categoryIndexes = categoryIndexes;
+    }
+
+    public int[] getDates() {
+        return dates;
+    }
+
+    public void setDates(int[] dates) {
+        this.dates = dates;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpensePageCompactResponseDto{" +
+                "categoryNames=" + categoryNames +
+                ", ids=" + Arrays.toString(ids) +
+                ", amounts=" + Arrays.toString(amounts) +
+                ", categoryIndexes=" + Arrays.toString(categoryIndexes) +
+                ", dates=" + Arrays.toString(dates) +
+                ", nextCursor='" + nextCursor + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,40 @@
+package com.soyhenry.expenseapp.dto.response;
+
+import java.util.List;
+
+public class ExpensePageResponseDto {
+    private List<ExpenseResponseDto> items;
+    private String nextCursor;
+
+    public ExpensePageResponseDto() {
+    }
+
+    public ExpensePageResponseDto(List<ExpenseResponseDto> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ExpenseResponseDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ExpenseResponseDto> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpensePageResponseDto{" +
+                "items=" + items +
+                ", nextCursor='" + nextCursor + '\'' +
+                '}';
+    }
+}
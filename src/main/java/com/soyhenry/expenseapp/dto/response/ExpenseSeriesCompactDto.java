@@ -0,0 +1,53 @@
+package com.soyhenry.expenseapp.dto.response;
+
+import java.util.Arrays;
+
+public class ExpenseSeriesCompactDto {
+    // Nombre de la categoría, o null si la serie suma todas
+    private String category;
+    // Total y cantidad de gastos de cada período, en el mismo orden que los períodos de la respuesta
+    private double[] totals;
+    private long[] counts;
+
+    public ExpenseSeriesCompactDto() {
+    }
+
+    public ExpenseSeriesCompactDto(String category, double[] totals, long[] counts) {
+        this.category = category;
+        this.totals = totals;
+        this.counts = counts;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public double[] getTotals() {
+        return totals;
+    }
+
+    public void setTotals(double[] totals) {
+        this.totals = totals;
+    }
+
+    public long[] getCounts() {
+        return counts;
+    }
+
+    public void setCounts(long[] counts) {
+        this.counts = counts;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpenseSeriesCompactDto{" +
+                "category='" + category + '\'' +
+                ", totals=" + Arrays.toString(totals) +
+                ", counts=" + Arrays.toString(counts) +
+                '}';
+    }
+}
@@ -0,0 +1,77 @@
+package com.soyhenry.expenseapp.dto.response;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Serie para los formatos binarios (Smile y CBOR): los períodos se envían una sola vez, como días desde 1970-01-01,
+// y cada serie lleva sólo sus totales y cantidades por período
+public class ExpenseSeriesCompactResponseDto {
+    private String granularity;
+    private String from;
+    private String to;
+    private int[] periods;
+    private List<ExpenseSeriesCompactDto> series;
+
+    public ExpenseSeriesCompactResponseDto() {
+    }
+
+    public ExpenseSeriesCompactResponseDto(String granularity, String from, String to, int[] periods,
+                                           List<ExpenseSeriesCompactDto> series) {
+        this.granularity = granularity;
+        this.from = from;
+        this.to = to;
+        this.periods = periods;
+        this.series = series;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public int[] getPeriods() {
+        return periods;
+    }
+
+    public void setPeriods(int[] periods) {
+        this.periods = periods;
+    }
+
+    public List<ExpenseSeriesCompactDto> getSeries() {
+        return series;
+    }
+
+    public void setSeries(List<ExpenseSeriesCompactDto> series) {
+        this.series = series;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpenseSeriesCompactResponseDto{" +
+                "granularity='" + granularity + '\'' +
+                ", from='" + from + '\'' +
+                ", to='" + to + '\'' +
+                ", periods=" + Arrays.toString(periods) +
+                ", series=" + series +
+                '}';
+    }
+}
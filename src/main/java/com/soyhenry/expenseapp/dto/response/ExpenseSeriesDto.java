@@ -0,0 +1,41 @@
+package com.soyhenry.expenseapp.dto.response;
+
+import java.util.List;
+
+public class ExpenseSeriesDto {
+    // Nombre de la categoría, o null si la serie suma todas
+    private String category;
+    private List<ExpenseSeriesPointDto> points;
+
+    public ExpenseSeriesDto() {
+    }
+
+    public ExpenseSeriesDto(String category, List<ExpenseSeriesPointDto> points) {
+        this.category = category;
+        this.points = points;
+    }
+
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public List<ExpenseSeriesPointDto> getPoints() {
+        return points;
+    }
+
+    public void setPoints(List<ExpenseSeriesPointDto> points) {
+        this.points = points;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpenseSeriesDto{" +
+                "category='" + category + '\'' +
+                ", points=" + points +
+                '}';
+    }
+}
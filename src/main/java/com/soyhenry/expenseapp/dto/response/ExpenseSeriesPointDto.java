@@ -0,0 +1,49 @@
+package com.soyhenry.expenseapp.dto.response;
+
+public class ExpenseSeriesPointDto {
+    private String period;
+    private double totalAmount;
+    private long expenseCount;
+
+    public ExpenseSeriesPointDto() {
+    }
+
+    public ExpenseSeriesPointDto(String period, double totalAmount, long expenseCount) {
+        this.period = period;
+        this.totalAmount = totalAmount;
+        this.expenseCount = expenseCount;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(String period) {
+        this.period = period;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public long getExpenseCount() {
+        return expenseCount;
+    }
+
+    public void setExpenseCount(long expenseCount) {
+        this.expenseCount = expenseCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpenseSeriesPointDto{" +
+                "period='" + period + '\'' +
+                ", totalAmount=" + totalAmount +
+                ", expenseCount=" + expenseCount +
+                '}';
+    }
+}
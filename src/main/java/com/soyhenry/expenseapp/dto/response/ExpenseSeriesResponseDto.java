@@ -0,0 +1,62 @@
+package com.soyhenry.expenseapp.dto.response;
+
+import java.util.List;
+
+public class ExpenseSeriesResponseDto {
+    private String granularity;
+    private String from;
+    private String to;
+    private List<ExpenseSeriesDto> series;
+
+    public ExpenseSeriesResponseDto() {
+    }
+
+    public ExpenseSeriesResponseDto(String granularity, String from, String to, List<ExpenseSeriesDto> series) {
+        this.granularity = granularity;
+        this.from = from;
+        this.to = to;
+        this.series = series;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    public List<ExpenseSeriesDto> getSeries() {
+        return series;
+    }
+
+    public void setSeries(List<ExpenseSeriesDto> series) {
+        this.series = series;
+    }
+
+    @Override
+    public String toString() {
+        return "ExpenseSeriesResponseDto{" +
+                "granularity='" + granularity + '\'' +
+                ", from='" + from + '\'' +
+                ", to='" + to + '\'' +
+                ", series=" + series +
+                '}';
+    }
+}
@@ -0,0 +1,60 @@
+package com.soyhenry.expenseapp.dto.response;
+
+public class IncomeResponseDto {
+    private Long id;
+    private double amount;
+    private String description;
+    private String date;
+
+    public IncomeResponseDto() {
+    }
+
+    public IncomeResponseDto(Long id, double amount, String description, String date) {
+        this.id = id;
+        this.amount = amount;
+        this.description = description;
+        this.date = date;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public void setDate(String date) {
+        this.date = date;
+    }
+
+    @Override
+    public String toString() {
+        return "IncomeResponseDto{" +
+                "id=" + id +
+                ", amount=" + amount +
+                ", description='" + description + '\'' +
+                ", date='" + date + '\'' +
+                '}';
+    }
+}
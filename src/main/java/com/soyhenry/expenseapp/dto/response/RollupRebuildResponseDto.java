@@ -0,0 +1,51 @@
+package com.soyhenry.expenseapp.dto.response;
+
+import java.util.List;
+
+public class RollupRebuildResponseDto {
+    private int bucketCount;
+    private int driftedBucketCount;
+    private List<String> driftedBuckets;
+
+    public RollupRebuildResponseDto() {
+    }
+
+    public RollupRebuildResponseDto(int bucketCount, List<String> driftedBuckets) {
+        this.bucketCount = bucketCount;
+        this.driftedBucketCount = driftedBuckets.size();
+        this.driftedBuckets = driftedBuckets;
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    public void setBucketCount(int bucketCount) {
+        this.bucketCount = bucketCount;
+    }
+
+    public int getDriftedBucketCount() {
+        return driftedBucketCount;
+    }
+
+    public void setDriftedBucketCount(int driftedBucketCount) {
+        this.driftedBucketCount = driftedBucketCount;
+    }
+
+    public List<String> getDriftedBuckets() {
+        return driftedBuckets;
+    }
+
+    public void setDriftedBuckets(List<String> driftedBuckets) {
+        this.driftedBuckets = driftedBuckets;
+    }
+
+    @Override
+    public String toString() {
+        return "RollupRebuildResponseDto{" +
+                "bucketCount=" + bucketCount +
+                ", driftedBucketCount=" + driftedBucketCount +
+                ", driftedBuckets=" + driftedBuckets +
+                '}';
+    }
+}
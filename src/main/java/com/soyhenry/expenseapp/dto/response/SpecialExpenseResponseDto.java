@@ -0,0 +1,71 @@
+package com.soyhenry.expenseapp.dto.response;
+
+public class SpecialExpenseResponseDto {
+    private Long id;
+    private double amount;
+    private String categoryName;
+    private String date;
+    private String reason;
+
+    public SpecialExpenseResponseDto() {
+    }
+
+    public SpecialExpenseResponseDto(Long id, double amount, String categoryName, String date, String reason) {
+        this.id = id;
+        this.amount = amount;
+        this.categoryName = categoryName;
+        this.date = date;
+        this.reason = reason;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public void setDate(String date) {
+        this.date = date;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
+    @Override
+    public String toString() {
+        return "SpecialExpenseResponseDto{" +
+                "id=" + id +
+                ", amount=" + amount +
+                ", categoryName='" + categoryName + '\'' +
+                ", date='" + date + '\'' +
+                ", reason='" + reason + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,52 @@
+package com.soyhenry.expenseapp.dto.response;
+
+import java.util.List;
+
+public class SpecialExpenseSearchResponseDto {
+    private String query;
+    // Cantidad total de coincidencias, aunque items se corte en limit
+    private int totalMatches;
+    private List<SpecialExpenseResponseDto> items;
+
+    public SpecialExpenseSearchResponseDto() {
+    }
+
+    public SpecialExpenseSearchResponseDto(String query, int totalMatches, List<SpecialExpenseResponseDto> items) {
+        this.query = query;
+        this.totalMatches = totalMatches;
+        this.items = items;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public int getTotalMatches() {
+        return totalMatches;
+    }
+
+    public void setTotalMatches(int totalMatches) {
+        this.totalMatches = totalMatches;
+    }
+
+    public List<SpecialExpenseResponseDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<SpecialExpenseResponseDto> items) {
+        this.items = items;
+    }
+
+    @Override
+    public String toString() {
+        return "SpecialExpenseSearchResponseDto{" +
+                "query='" + query + '\'' +
+                ", totalMatches=" + totalMatches +
+                ", items=" + items +
+                '}';
+    }
+}
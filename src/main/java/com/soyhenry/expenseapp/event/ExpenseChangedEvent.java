@@ -0,0 +1,9 @@
+package com.soyhenry.expenseapp.event;
+
+import java.time.YearMonth;
+import java.util.Set;
+
+// Se publica dentro de la transacción de cada escritura sobre Expense con la cuenta y los meses cuyos datos cambiaron.
+// En una actualización que mueve el gasto de mes incluye el mes anterior y el nuevo
+public record ExpenseChangedEvent(String tenantId, Set<YearMonth> months) {
+}
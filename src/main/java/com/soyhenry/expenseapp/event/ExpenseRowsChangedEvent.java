@@ -0,0 +1,10 @@
+package com.soyhenry.expenseapp.event;
+
+import com.soyhenry.expenseapp.domain.Expense;
+
+import java.util.List;
+
+// Se publica dentro de la transacción de cada escritura sobre Expense con las filas que se agregaron y las que se quitaron
+// (una actualización quita la versión anterior y agrega la nueva). Las categorías ya vienen resueltas
+public record ExpenseRowsChangedEvent(String tenantId, List<Expense> added, List<Expense> removed) {
+}
@@ -0,0 +1,8 @@
+package com.soyhenry.expenseapp.event;
+
+import java.time.YearMonth;
+import java.util.Set;
+
+// Se publica dentro de la transacción de cada escritura sobre Income con la cuenta y los meses cuyos ingresos cambiaron
+public record IncomeChangedEvent(String tenantId, Set<YearMonth> months) {
+}
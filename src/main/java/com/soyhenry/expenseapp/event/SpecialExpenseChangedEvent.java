@@ -0,0 +1,8 @@
+package com.soyhenry.expenseapp.event;
+
+import com.soyhenry.expenseapp.domain.SpecialExpense;
+
+// Se publica dentro de la transacción de cada escritura sobre SpecialExpense. specialExpense trae los datos
+// vigentes del registro, o null si se eliminó
+public record SpecialExpenseChangedEvent(String tenantId, Long id, SpecialExpense specialExpense) {
+}
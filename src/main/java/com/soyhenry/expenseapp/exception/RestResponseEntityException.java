@@ -1,6 +1,7 @@
 package com.soyhenry.expenseapp.exception;
 
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -56,6 +57,16 @@ public class RestResponseEntityException {
         return new ResponseEntity<>(apiResponse, HttpStatus.BAD_REQUEST);
     }
 
+    //controla la saturación temporal (cola de altas llena) con un 503 para que el cliente reintente
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiResponse> handlerServiceUnavailableException(ServiceUnavailableException exception,
+                                                                          WebRequest webRequest) {
+        ApiResponse apiResponse = new ApiResponse(exception.getMessage(), webRequest.getDescription(false));
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(apiResponse);
+    }
+
     //controla los errores de varios tipos y globalizrlo con un error 500
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiResponse> handlerException(Exception exception,
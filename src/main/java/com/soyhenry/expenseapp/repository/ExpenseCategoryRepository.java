@@ -0,0 +1,15 @@
+package com.soyhenry.expenseapp.repository;
+
+import com.soyhenry.expenseapp.domain.ExpenseCategory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ExpenseCategoryRepository {
+    ExpenseCategory findByName(String name);
+    ExpenseCategory findOrCreateByName(String name);
+    Map<String, ExpenseCategory> findOrCreateByNames(Collection<String> names);
+
+    List<ExpenseCategory> selectCategories();
+}
@@ -1,21 +1,35 @@
 package com.soyhenry.expenseapp.repository;
 
 import com.soyhenry.expenseapp.domain.Expense;
+import com.soyhenry.expenseapp.domain.ExpenseBucketSum;
+import com.soyhenry.expenseapp.domain.ExpenseCategory;
+import com.soyhenry.expenseapp.domain.ExpenseFilter;
+import com.soyhenry.expenseapp.domain.ExpenseRow;
+import com.soyhenry.expenseapp.dto.response.CategoryExpenseSumResponseDto;
 import com.soyhenry.expenseapp.dto.response.MonthlyExpenseSumResponseDto;
 import com.soyhenry.expenseapp.exception.DAOException;
+import org.springframework.jdbc.core.RowCallbackHandler;
 
+import java.time.LocalDate;
 import java.util.List;
 
 public interface ExpenseRepository {
     Integer insertExpense(Expense expense);
+    int insertExpenses(List<Expense> expenses);
     Integer updateExpense(Long id, Expense expense);
     void deleteExpense(Long id) throws DAOException;
 
-    List<Expense> findByCategoryName(String name);
+    CategoryExpenseSumResponseDto selectExpenseSumByCategory(ExpenseCategory category, LocalDate from, LocalDate to);
+    List<ExpenseBucketSum> selectExpenseSumsByDay(LocalDate from, LocalDate to, boolean byCategory);
+    // Suma en centavos
+    long selectExpenseSum(LocalDate from, LocalDate to);
 
-    List<Expense> selectExpenses();
+    List<ExpenseRow> selectExpenses();
+    List<ExpenseRow> selectExpensePage(ExpenseFilter filter, int limit);
+    void streamExpenses(RowCallbackHandler rowCallbackHandler);
     Expense selectExpenseById(Long id);
     MonthlyExpenseSumResponseDto selectExpenseSumByMonth(int year, int month);
 
-    Double getTotalExpenseSum();
+    // Suma en centavos
+    long getTotalExpenseSum();
 }
@@ -0,0 +1,28 @@
+package com.soyhenry.expenseapp.repository;
+
+import com.soyhenry.expenseapp.domain.Expense;
+import com.soyhenry.expenseapp.domain.ExpenseBucketSum;
+import com.soyhenry.expenseapp.domain.ExpenseCategory;
+import com.soyhenry.expenseapp.domain.MonthlyTotal;
+import com.soyhenry.expenseapp.dto.response.CategoryExpenseSumResponseDto;
+import com.soyhenry.expenseapp.dto.response.RollupRebuildResponseDto;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+public interface ExpenseRollupRepository {
+    void addExpense(Expense expense);
+    void addExpenses(List<Expense> expenses);
+    void removeExpense(Expense expense);
+
+    // Sumas en centavos
+    long selectSumByMonth(int year, int month);
+    long selectTotalSum();
+    CategoryExpenseSumResponseDto selectSumByCategory(ExpenseCategory category);
+    Map<Long, Long> selectExpenseCountByCategory();
+    List<ExpenseBucketSum> selectSumsByMonth(YearMonth from, YearMonth to, boolean byCategory);
+    List<MonthlyTotal> selectMonthlyTotals();
+
+    RollupRebuildResponseDto rebuild();
+}
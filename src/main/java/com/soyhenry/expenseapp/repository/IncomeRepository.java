@@ -0,0 +1,18 @@
+package com.soyhenry.expenseapp.repository;
+
+import com.soyhenry.expenseapp.domain.Income;
+import com.soyhenry.expenseapp.domain.MonthlyTotal;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface IncomeRepository {
+    Integer insertIncome(Income income);
+    Integer updateIncome(Long id, Income income);
+    Integer deleteIncome(Long id);
+
+    Income selectIncomeById(Long id);
+    List<Income> selectIncomes(LocalDate from, LocalDate to, int limit);
+    long selectIncomeSum(LocalDate from, LocalDate to);
+    List<MonthlyTotal> selectMonthlyTotals();
+}
@@ -0,0 +1,19 @@
+package com.soyhenry.expenseapp.repository;
+
+import com.soyhenry.expenseapp.domain.SpecialExpense;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface SpecialExpenseRepository {
+    Long insertSpecialExpense(SpecialExpense specialExpense);
+    Integer updateSpecialExpense(Long id, SpecialExpense specialExpense);
+    Integer deleteSpecialExpense(Long id);
+
+    SpecialExpense selectSpecialExpenseById(Long id);
+    List<SpecialExpense> selectSpecialExpensesByIds(Collection<Long> ids);
+    long selectSpecialExpenseSum(LocalDate from, LocalDate to);
+    void streamSearchFields(RowCallbackHandler rowCallbackHandler);
+}
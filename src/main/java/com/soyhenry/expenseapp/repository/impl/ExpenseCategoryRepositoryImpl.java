@@ -0,0 +1,119 @@
+package com.soyhenry.expenseapp.repository.impl;
+
+import com.soyhenry.expenseapp.cache.ExpenseCategoryCache;
+import com.soyhenry.expenseapp.domain.ExpenseCategory;
+import com.soyhenry.expenseapp.repository.ExpenseCategoryRepository;
+import com.soyhenry.expenseapp.tenant.TenantContext;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@Timed(value = "expense.repository", histogram = true, percentiles = {0.5, 0.95, 0.99})
+public class ExpenseCategoryRepositoryImpl implements ExpenseCategoryRepository {
+    // Upsert sobre la restricción única de (tenant_id, name): si dos altas concurrentes compiten, una sola crea la fila
+    private static final String MERGE_CATEGORY_BY_NAME = "MERGE INTO ExpenseCategory (tenant_id, name) KEY (tenant_id, name) VALUES (?, ?)";
+    private static final String SELECT_CATEGORY_BY_NAME = "SELECT id, name FROM ExpenseCategory WHERE tenant_id = ? AND name = ?";
+    private static final String SELECT_ALL_CATEGORIES = "SELECT id, name FROM ExpenseCategory WHERE tenant_id = ?";
+    private static final String SELECT_CATEGORIES_OF_ALL_TENANTS = "SELECT tenant_id, id, name FROM ExpenseCategory";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExpenseCategoryCache expenseCategoryCache;
+
+    public ExpenseCategoryRepositoryImpl(JdbcTemplate jdbcTemplate, ExpenseCategoryCache expenseCategoryCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expenseCategoryCache = expenseCategoryCache;
+    }
+
+    // Precargamos el registro de categorías al iniciar para que los inserts no tengan que consultarlas
+    @PostConstruct
+    public void warmCategoryCache() {
+        jdbcTemplate.query(SELECT_CATEGORIES_OF_ALL_TENANTS, rs -> {
+            expenseCategoryCache.warm(rs.getString(1), new ExpenseCategory(rs.getLong(2), rs.getString(3)));
+        });
+    }
+
+    @Override
+    public ExpenseCategory findByName(String name) {
+        String tenantId = TenantContext.getTenantId();
+        ExpenseCategory category = expenseCategoryCache.get(tenantId, name);
+        if (category != null) {
+            return category;
+        }
+        try {
+            category = jdbcTemplate.queryForObject(SELECT_CATEGORY_BY_NAME, new ExpenseCategoryRowMapper(), tenantId, name.toLowerCase());
+        } catch (EmptyResultDataAccessException e) {
+            // Si no se encuentra ninguna categoría, devolvemos null
+            return null;
+        }
+        expenseCategoryCache.put(tenantId, category);
+        return category;
+    }
+
+    @Override
+    public ExpenseCategory findOrCreateByName(String name) {
+        String tenantId = TenantContext.getTenantId();
+        String categoryName = name.toLowerCase();
+
+        // En el caso habitual la categoría ya está en memoria y no hace falta ir a la BD
+        ExpenseCategory category = expenseCategoryCache.get(tenantId, categoryName);
+        if (category != null) {
+            return category;
+        }
+
+        try {
+            jdbcTemplate.update(MERGE_CATEGORY_BY_NAME, tenantId, categoryName);
+        } catch (DuplicateKeyException e) {
+            // Otra transacción la creó al mismo tiempo; la restricción única evitó el duplicado y sólo resta leerla
+        }
+        category = jdbcTemplate.queryForObject(SELECT_CATEGORY_BY_NAME, new ExpenseCategoryRowMapper(), tenantId, categoryName);
+        expenseCategoryCache.put(tenantId, category);
+        return category;
+    }
+
+    // Resuelve cada nombre distinto una sola vez; el mapa resultante está indexado por nombre en minúsculas
+    @Override
+    public Map<String, ExpenseCategory> findOrCreateByNames(Collection<String> names) {
+        Map<String, ExpenseCategory> categories = new HashMap<>();
+        for (String name : names) {
+            categories.computeIfAbsent(name.toLowerCase(), this::findOrCreateByName);
+        }
+        return categories;
+    }
+
+    // El listado completo de la cuenta se sirve desde memoria; sólo se vuelve a leer la tabla después de que
+    // la cuenta crea una categoría
+    @Override
+    public List<ExpenseCategory> selectCategories() {
+        String tenantId = TenantContext.getTenantId();
+        List<ExpenseCategory> categories = expenseCategoryCache.getAll(tenantId);
+        if (categories == null) {
+            long version = expenseCategoryCache.getAllVersion();
+            categories = jdbcTemplate.query(SELECT_ALL_CATEGORIES, new ExpenseCategoryRowMapper(), tenantId);
+            expenseCategoryCache.putAll(tenantId, categories, version);
+        }
+        return categories;
+    }
+
+    // Clase interna que permite mapear cada resultado del ResultSet a las propiedades de la entidad
+    static class ExpenseCategoryRowMapper implements RowMapper<ExpenseCategory> {
+        @Override
+        public ExpenseCategory mapRow(ResultSet rs, int rowNum) throws SQLException {
+            ExpenseCategory expenseCategory = new ExpenseCategory();
+            expenseCategory.setId(rs.getLong("id"));
+            expenseCategory.setName(rs.getString("name"));
+            return expenseCategory;
+        }
+    }
+}
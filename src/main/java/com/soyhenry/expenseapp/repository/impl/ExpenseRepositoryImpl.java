@@ -1,199 +1,430 @@
 package com.soyhenry.expenseapp.repository.impl;
 
+import com.soyhenry.expenseapp.analytics.ExpenseAnalyticsSnapshot;
+import com.soyhenry.expenseapp.analytics.ExpenseColumns;
 import com.soyhenry.expenseapp.domain.Expense;
+import com.soyhenry.expenseapp.domain.ExpenseBucketSum;
 import com.soyhenry.expenseapp.domain.ExpenseCategory;
+import com.soyhenry.expenseapp.domain.ExpenseFilter;
+import com.soyhenry.expenseapp.domain.ExpenseRow;
+import com.soyhenry.expenseapp.domain.Money;
+import com.soyhenry.expenseapp.dto.response.CategoryExpenseSumResponseDto;
 import com.soyhenry.expenseapp.dto.response.MonthlyExpenseSumResponseDto;
+import com.soyhenry.expenseapp.event.ExpenseRowsChangedEvent;
 import com.soyhenry.expenseapp.exception.DAOException;
+import com.soyhenry.expenseapp.repository.ExpenseCategoryRepository;
 import com.soyhenry.expenseapp.repository.ExpenseRepository;
+import com.soyhenry.expenseapp.repository.ExpenseRollupRepository;
+import com.soyhenry.expenseapp.tenant.TenantContext;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+// Todas las lecturas y escrituras se acotan a la cuenta del hilo actual (TenantContext), así que un id
+// de otra cuenta se comporta igual que uno inexistente
 @Repository
+@Timed(value = "expense.repository", histogram = true, percentiles = {0.5, 0.95, 0.99})
 public class ExpenseRepositoryImpl implements ExpenseRepository {
-    private static final String UPDATE_EXPENSE_BY_ID = "UPDATE Expense SET amount = ?, category_name = ?, date = ? WHERE id = ?";
-    private static final String INSERT_INTO_EXPENSE = "INSERT INTO Expense (amount, category_id, category_name, date) VALUES (?, ?, ?, ?)";
-    private static final String DELETE_FROM_EXPENSE_BY_ID = "DELETE FROM Expense WHERE id = ?";
-    private static final String SELECT_ALL_EXPENSES = "SELECT * FROM Expense";
-    private static final String SELECT_EXPENSE_BY_ID = "SELECT * FROM Expense WHERE id = ?";
-    private static final String INSERT_INTO_CATEGORY_EXPENSE = "INSERT INTO ExpenseCategory (name) VALUES (?)";
-    private static final String SELECT_FROM_EXPENSE_CATEGORY_BY_NAME = "SELECT * FROM ExpenseCategory WHERE name = ?";
-    private static final String  sql =  "SELECT amount, date FROM Expense WHERE PARSE_DATE(date, 'yyyy-MM-dd') IS NOT NULL";
+    private static final Logger log = LoggerFactory.getLogger(ExpenseRepositoryImpl.class);
+
+    // Columnas en el orden en que las leen los row mappers y la exportación por posición
+    private static final String EXPENSE_COLUMNS = "id, amount_cents, category_id, category_name, date";
+    private static final String UPDATE_EXPENSE_BY_ID =
+            "UPDATE Expense SET amount_cents = ?, category_id = ?, category_name = ?, date = ? WHERE id = ? AND tenant_id = ?";
+    private static final String INSERT_INTO_EXPENSE =
+            "INSERT INTO Expense (tenant_id, amount_cents, category_id, category_name, date) VALUES (?, ?, ?, ?, ?)";
+    private static final String DELETE_FROM_EXPENSE_BY_ID = "DELETE FROM Expense WHERE id = ? AND tenant_id = ?";
+    private static final String SELECT_ALL_EXPENSES = "SELECT " + EXPENSE_COLUMNS + " FROM Expense WHERE tenant_id = ?";
+    private static final String SELECT_EXPENSE_BY_ID = "SELECT " + EXPENSE_COLUMNS + " FROM Expense WHERE id = ? AND tenant_id = ?";
+    private static final String SELECT_EXPENSE_SUM_BY_CATEGORY =
+            "SELECT COALESCE(SUM(amount_cents), 0), COUNT(*) FROM Expense WHERE tenant_id = ? AND category_id = ?";
+    private static final String SELECT_EXPENSES_FOR_EXPORT = "SELECT " + EXPENSE_COLUMNS + " FROM Expense WHERE tenant_id = ? ORDER BY id";
+    private static final String SELECT_EXPENSE_BY_ID_FOR_UPDATE =
+            "SELECT " + EXPENSE_COLUMNS + " FROM Expense WHERE id = ? AND tenant_id = ? FOR UPDATE";
+    private static final String SELECT_EXPENSE_SUMS_BY_DAY =
+            "SELECT date, SUM(amount_cents), COUNT(*) FROM Expense WHERE tenant_id = ? AND date BETWEEN ? AND ? GROUP BY date";
+    private static final String SELECT_EXPENSE_SUMS_BY_DAY_AND_CATEGORY =
+            "SELECT date, category_id, category_name, SUM(amount_cents), COUNT(*) FROM Expense WHERE tenant_id = ? AND date BETWEEN ? AND ? " +
+            "GROUP BY date, category_id, category_name";
+    private static final String SELECT_EXPENSE_SUM_BY_DATE =
+            "SELECT COALESCE(SUM(amount_cents), 0) FROM Expense WHERE tenant_id = ? AND date BETWEEN ? AND ?";
+    private static final String SELECT_EXPENSE_PAGE = "SELECT " + EXPENSE_COLUMNS + " FROM Expense WHERE tenant_id = ?";
+
+    // Los mappers no guardan estado, así que se comparten entre consultas
+    private static final RowMapper<Expense> EXPENSE_ROW_MAPPER = new ExpenseRowMapper();
+    private static final RowMapper<ExpenseRow> EXPENSE_READ_ROW_MAPPER = new ExpenseReadRowMapper();
 
     // Objeto de JDBC de Spring que realiza todas las operaciones necesarias para
     // realizar la conexión, generar los prepared statements, ejecutar las operaciones y cerrar las conexiones
     private final JdbcTemplate jdbcTemplate;
-
-    public ExpenseRepositoryImpl(JdbcTemplate jdbcTemplate) {
+    // Acumulados por mes y categoría que se actualizan en la misma transacción que cada escritura
+    private final ExpenseRollupRepository expenseRollupRepository;
+    // Resuelve las categorías desde el registro en memoria y sólo va a la BD para las nuevas
+    private final ExpenseCategoryRepository expenseCategoryRepository;
+    // Cantidad de filas que el driver trae por viaje al recorrer la exportación
+    private final int exportFetchSize;
+    // Avisa las filas agregadas y quitadas por cada escritura, para la copia analítica en memoria
+    private final ApplicationEventPublisher eventPublisher;
+    // Copia analítica por columnas; si está activa resuelve las sumas por rango de fechas sin ir a la BD
+    private final ExpenseAnalyticsSnapshot analyticsSnapshot;
+    // Distribución de la cantidad de filas que devuelve cada lectura de listados, con el método como tag
+    private final DistributionSummary selectExpensesRows;
+    private final DistributionSummary selectExpensePageRows;
+    private final DistributionSummary streamExpensesRows;
+
+    public ExpenseRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                 ExpenseRollupRepository expenseRollupRepository,
+                                 ExpenseCategoryRepository expenseCategoryRepository,
+                                 @Value("${expenseapp.export.fetch-size:1000}") int exportFetchSize,
+                                 MeterRegistry meterRegistry,
+                                 ApplicationEventPublisher eventPublisher,
+                                 ExpenseAnalyticsSnapshot analyticsSnapshot) {
         this.jdbcTemplate = jdbcTemplate;
+        this.expenseRollupRepository = expenseRollupRepository;
+        this.expenseCategoryRepository = expenseCategoryRepository;
+        this.exportFetchSize = exportFetchSize;
+        this.eventPublisher = eventPublisher;
+        this.analyticsSnapshot = analyticsSnapshot;
+        this.selectExpensesRows = rowsSummary(meterRegistry, "selectExpenses");
+        this.selectExpensePageRows = rowsSummary(meterRegistry, "selectExpensePage");
+        this.streamExpensesRows = rowsSummary(meterRegistry, "streamExpenses");
+    }
+
+    private static DistributionSummary rowsSummary(MeterRegistry meterRegistry, String method) {
+        return DistributionSummary.builder("expense.repository.rows")
+                .description("Filas devueltas por consulta")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
     }
 
     @Override
+    @Transactional
     public Integer insertExpense(Expense expense) {
-        String categoryName = expense.getCategoryName().toLowerCase();
-
-        // Verificamos si la categoría ya existe
-        ExpenseCategory existingCategory = getCategoryByName(categoryName);
-
-        if (existingCategory == null) {
-            // Si la categoría no existe, la insertamos
-            jdbcTemplate.update(INSERT_INTO_CATEGORY_EXPENSE, categoryName);
-
-            // Recuperamos la categoría recién insertada
-            existingCategory = getCategoryByName(categoryName);
-        }
-
-        // Aseguramos que la categoría existe antes de continuar
-        assert existingCategory != null;
+        ExpenseCategory category = expenseCategoryRepository.findOrCreateByName(expense.getCategoryName());
 
         // Luego, usamos los datos de esa categoría para completar el gasto y guardarlo
-        return jdbcTemplate.update(INSERT_INTO_EXPENSE,
-                expense.getAmount(),
-                existingCategory.getId(),
-                existingCategory.getName(),
+        Integer inserted = jdbcTemplate.update(INSERT_INTO_EXPENSE,
+                TenantContext.getTenantId(),
+                expense.getAmountCents(),
+                category.getId(),
+                category.getName(),
                 expense.getDate());
-    }
 
-    private ExpenseCategory getCategoryByName(String categoryName) {
-        // Declaramos el parámetro a ser insertado en la query y cuantos placeholders o argumentos pasamos
-        Object[] params = {categoryName};
-        int[] types = {Types.VARCHAR};
+        expense.setCategoryId(category.getId());
+        expense.setCategoryName(category.getName());
+        expenseRollupRepository.addExpense(expense);
+        eventPublisher.publishEvent(new ExpenseRowsChangedEvent(TenantContext.getTenantId(), List.of(expense), List.of()));
+        return inserted;
+    }
 
-        try {
-            // Intentamos recuperar la categoría por nombre
-            return jdbcTemplate.queryForObject(
-                    SELECT_FROM_EXPENSE_CATEGORY_BY_NAME,
-                    params, types,
-                    new ExpenseCategoryRowMapper());
-        } catch (EmptyResultDataAccessException e) {
-            // Si no se encuentra ninguna categoría, devolvemos null
-            return null;
+    // Inserta el lote completo con un único batch de JDBC en una sola transacción.
+    // Las categorías distintas del lote se resuelven una sola vez antes de escribir.
+    @Override
+    @Transactional
+    public int insertExpenses(List<Expense> expenses) {
+        Map<String, ExpenseCategory> categories = expenseCategoryRepository.findOrCreateByNames(
+                expenses.stream().map(Expense::getCategoryName).collect(Collectors.toSet()));
+
+        for (Expense expense : expenses) {
+            ExpenseCategory category = categories.get(expense.getCategoryName().toLowerCase());
+            expense.setCategoryId(category.getId());
+            expense.setCategoryName(category.getName());
         }
-    }
 
+        String tenantId = TenantContext.getTenantId();
+        int[] inserted = jdbcTemplate.batchUpdate(INSERT_INTO_EXPENSE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Expense expense = expenses.get(i);
+                ps.setString(1, tenantId);
+                ps.setLong(2, expense.getAmountCents());
+                ps.setLong(3, expense.getCategoryId());
+                ps.setString(4, expense.getCategoryName());
+                ps.setObject(5, expense.getDate());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return expenses.size();
+            }
+        });
+
+        expenseRollupRepository.addExpenses(expenses);
+        eventPublisher.publishEvent(new ExpenseRowsChangedEvent(tenantId, List.copyOf(expenses), List.of()));
+        return Arrays.stream(inserted).sum();
+    }
 
     @Override
+    @Transactional
     public Integer updateExpense(Long id, Expense expense) {
-        System.out.println("Actualizando la presentación");
-        return jdbcTemplate.update(UPDATE_EXPENSE_BY_ID,
-            expense.getAmount(),
-            expense.getCategoryName(),
+        log.debug("Actualizando la presentación");
+        // Bloqueamos la fila actual para conocer el bucket del que hay que descontar el gasto
+        Expense previous = selectExpenseForUpdate(id);
+        if (previous == null) {
+            return 0;
+        }
+
+        ExpenseCategory category = expenseCategoryRepository.findOrCreateByName(expense.getCategoryName());
+        Integer updated = jdbcTemplate.update(UPDATE_EXPENSE_BY_ID,
+            expense.getAmountCents(),
+            category.getId(),
+            category.getName(),
             expense.getDate(),
-            id);
+            id,
+            TenantContext.getTenantId());
+
+        expense.setId(id);
+        expense.setCategoryId(category.getId());
+        expense.setCategoryName(category.getName());
+        // Movemos el delta entre buckets si cambió el monto, la fecha o la categoría
+        expenseRollupRepository.removeExpense(previous);
+        expenseRollupRepository.addExpense(expense);
+        eventPublisher.publishEvent(new ExpenseRowsChangedEvent(TenantContext.getTenantId(), List.of(expense), List.of(previous)));
+        return updated;
     }
 
     @Override
+    @Transactional(rollbackFor = DAOException.class)
     public void deleteExpense(Long id) throws DAOException {
-        System.out.println("Se elimina el gasto con ID: " + id);
+        log.debug("Se elimina el gasto con ID: {}", id);
         // Manejamos un try/catch para que, en caso de error al ejecutar la sentencia SQL de delete, arrojemos una excepción customizada
         try {
-            jdbcTemplate.update(DELETE_FROM_EXPENSE_BY_ID, id);
+            Expense previous = selectExpenseForUpdate(id);
+            if (previous != null) {
+                jdbcTemplate.update(DELETE_FROM_EXPENSE_BY_ID, id, TenantContext.getTenantId());
+                expenseRollupRepository.removeExpense(previous);
+                eventPublisher.publishEvent(new ExpenseRowsChangedEvent(TenantContext.getTenantId(), List.of(), List.of(previous)));
+            }
         } catch (DataAccessException exception) {
             throw new DAOException("Hubo un error al eliminar el gasto con id " + id, exception);
         }
-        System.out.println("Gasto eliminado con éxito");
+        log.debug("Gasto eliminado con éxito");
     }
 
     @Override
     public Expense selectExpenseById(Long id) {
         // Declaramos el parámetro a ser insertado en la query y cuantos placeholders o argumentos pasamos
-        Object[] params = {id};
-        int[] types = {1};
+        Object[] params = {id, TenantContext.getTenantId()};
+        int[] types = {Types.BIGINT, Types.VARCHAR};
         return jdbcTemplate.queryForObject(
             SELECT_EXPENSE_BY_ID,
             params, types,
-            new ExpenseRowMapper());
+            EXPENSE_ROW_MAPPER);
+    }
+
+    private Expense selectExpenseForUpdate(Long id) {
+        try {
+            return jdbcTemplate.queryForObject(SELECT_EXPENSE_BY_ID_FOR_UPDATE, EXPENSE_ROW_MAPPER, id, TenantContext.getTenantId());
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
     }
 
     @Override
     public MonthlyExpenseSumResponseDto selectExpenseSumByMonth(int year, int month) {
-        // Consulta SQL para obtener los montos y fechas de gastos
-        String sql = "SELECT amount, date FROM Expense WHERE date IS NOT NULL";
-
-        // Ejecución de la consulta y obtención de los resultados
-        List<Object[]> result = jdbcTemplate.query(sql, (rs, rowNum) -> new Object[]{rs.getDouble("amount"), rs.getString("date")});
-
-        // Filtrado de gastos por año y mes
-        List<Double> filteredExpenses = result.stream()
-                .filter(obj -> {
-                    String expenseDate = (String) obj[1]; // Obtiene la fecha como String
-                    LocalDate expenseLocalDate = LocalDate.parse(expenseDate, DateTimeFormatter.ofPattern("dd/MM/yyyy")); // Convierte la fecha a LocalDate
-                    return expenseLocalDate.getYear() == year && expenseLocalDate.getMonthValue() == month; // Compara el año y mes
-                })
-                .map(obj -> (Double) obj[0]) // Obtiene solo el monto del gasto
-                .collect(Collectors.toList()); // Convierte los resultados filtrados a una lista
-
-        // Cálculo de la suma total de gastos
-        double totalAmount = filteredExpenses.stream().mapToDouble(Double::doubleValue).sum();
+        // La suma sale de los acumulados del mes (un registro por categoría), sin recorrer la tabla Expense
+        long totalCents = expenseRollupRepository.selectSumByMonth(year, month);
 
         // Retorna un nuevo objeto MonthlyExpenseSumResponseDto con la suma total de gastos para el año y mes proporcionados
-        return new MonthlyExpenseSumResponseDto(year, month, totalAmount);
+        return new MonthlyExpenseSumResponseDto(year, month, Money.toAmount(totalCents));
     }
 
-
     @Override
-    public Double getTotalExpenseSum() {
-        String sql = "SELECT COALESCE(SUM(amount), 0) FROM Expense";
-        return jdbcTemplate.queryForObject(sql, Double.class);
+    public long getTotalExpenseSum() {
+        return expenseRollupRepository.selectTotalSum();
     }
 
+    // Total y cantidad de gastos de una categoría. Sin rango de fechas alcanza con sumar sus acumulados mensuales;
+    // con rango, la suma se resuelve en la BD recorriendo el índice (tenant_id, category_id, date, id) sólo en ese tramo,
+    // o sobre la copia analítica en memoria si está activa
     @Override
-    public List<Expense> findByCategoryName(String name) {
-        String sql = "SELECT * FROM expenses WHERE category_name = ?";
-        Object[] params = {name};
-        int[] types = {Types.VARCHAR};
+    public CategoryExpenseSumResponseDto selectExpenseSumByCategory(ExpenseCategory category, LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return expenseRollupRepository.selectSumByCategory(category);
+        }
+        if (analyticsSnapshot.isAvailable()) {
+            long[] sum = analyticsSnapshot.sumByCategory(analyticsSnapshot.view(TenantContext.getTenantId()), category.getId(),
+                    from == null ? Integer.MIN_VALUE : (int) from.toEpochDay(),
+                    to == null ? Integer.MAX_VALUE : (int) to.toEpochDay());
+            return new CategoryExpenseSumResponseDto(category.getName(), Money.toAmount(sum[0]), sum[1]);
+        }
 
-        try {
-            return jdbcTemplate.query(sql, params, types, new ExpenseRowMapper());
-        } catch (EmptyResultDataAccessException e) {
-            // Maneja el caso donde no se encuentra ninguna categoría con el nombre proporcionado
-            return Collections.emptyList();
+        StringBuilder sql = new StringBuilder(SELECT_EXPENSE_SUM_BY_CATEGORY);
+        List<Object> params = new ArrayList<>();
+        params.add(TenantContext.getTenantId());
+        params.add(category.getId());
+        if (from != null) {
+            sql.append(" AND date >= ?");
+            params.add(from);
+        }
+        if (to != null) {
+            sql.append(" AND date <= ?");
+            params.add(to);
         }
+        return jdbcTemplate.queryForObject(sql.toString(),
+                (rs, rowNum) -> new CategoryExpenseSumResponseDto(category.getName(), Money.toAmount(rs.getLong(1)), rs.getLong(2)),
+                params.toArray());
     }
 
+    // Totales por día (y por categoría si se pide) dentro del rango, en una sola consulta que recorre
+    // el índice sobre (tenant_id, date) sólo en ese tramo. Las semanas y los meses incompletos se arman a partir de los días.
+    // Con la copia analítica activa se acumula en memoria, salvo que el rango por categorías sea demasiado grande
+    @Override
+    public List<ExpenseBucketSum> selectExpenseSumsByDay(LocalDate from, LocalDate to, boolean byCategory) {
+        String tenantId = TenantContext.getTenantId();
+        if (analyticsSnapshot.isAvailable()) {
+            ExpenseColumns.View view = analyticsSnapshot.view(tenantId);
+            if (analyticsSnapshot.fitsDense(from, to, byCategory ? view.categoryCount() : 1)) {
+                return analyticsSnapshot.sumsByDay(view, (int) from.toEpochDay(), (int) to.toEpochDay(), byCategory);
+            }
+        }
+        if (byCategory) {
+            return jdbcTemplate.query(SELECT_EXPENSE_SUMS_BY_DAY_AND_CATEGORY,
+                    (rs, rowNum) -> new ExpenseBucketSum(rs.getObject(1, LocalDate.class), rs.getLong(2), rs.getString(3),
+                            rs.getLong(4), rs.getLong(5)),
+                    tenantId, from, to);
+        }
+        return jdbcTemplate.query(SELECT_EXPENSE_SUMS_BY_DAY,
+                (rs, rowNum) -> new ExpenseBucketSum(rs.getObject(1, LocalDate.class), 0, null, rs.getLong(2), rs.getLong(3)),
+                tenantId, from, to);
+    }
 
+    // Suma en centavos de los gastos de un rango de días, recorriendo el índice (tenant_id, date, id) sólo en ese tramo
+    // o la copia analítica
     @Override
-    public List<Expense> selectExpenses() {
+    public long selectExpenseSum(LocalDate from, LocalDate to) {
+        if (analyticsSnapshot.isAvailable()) {
+            return analyticsSnapshot.sum(analyticsSnapshot.view(TenantContext.getTenantId()),
+                    (int) from.toEpochDay(), (int) to.toEpochDay());
+        }
+        return jdbcTemplate.queryForObject(SELECT_EXPENSE_SUM_BY_DATE, Long.class, TenantContext.getTenantId(), from, to);
+    }
+
+    @Override
+    public List<ExpenseRow> selectExpenses() {
         // En el caso de recuperar todos los registros, no necesitamos especificar parametros de búsqueda
-        return jdbcTemplate.query(SELECT_ALL_EXPENSES, new ExpenseRowMapper());
+        List<ExpenseRow> expenses = jdbcTemplate.query(SELECT_ALL_EXPENSES, EXPENSE_READ_ROW_MAPPER, TenantContext.getTenantId());
+        selectExpensesRows.record(expenses.size());
+        return expenses;
     }
 
+    // Devuelve una página ordenada por (date, id) aplicando los filtros en la query.
+    // En lugar de OFFSET se parte de la posición del último gasto de la página anterior, así el índice
+    // sobre (tenant_id, date, id) lleva directo al inicio de la página y el costo no crece con el número de página
+    @Override
+    public List<ExpenseRow> selectExpensePage(ExpenseFilter filter, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_EXPENSE_PAGE);
+        List<Object> params = new ArrayList<>();
+        params.add(TenantContext.getTenantId());
+
+        if (filter.getFrom() != null) {
+            sql.append(" AND date >= ?");
+            params.add(filter.getFrom());
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND date <= ?");
+            params.add(filter.getTo());
+        }
+        if (filter.getCategoryId() != null) {
+            sql.append(" AND category_id = ?");
+            params.add(filter.getCategoryId());
+        }
+        if (filter.getMinAmountCents() != null) {
+            sql.append(" AND amount_cents >= ?");
+            params.add(filter.getMinAmountCents());
+        }
+        if (filter.getMaxAmountCents() != null) {
+            sql.append(" AND amount_cents <= ?");
+            params.add(filter.getMaxAmountCents());
+        }
+        if (filter.getAfterDate() != null) {
+            // Equivale a (date, id) > (afterDate, afterId); el primer término permite el recorrido por rango del índice
+            sql.append(" AND date >= ? AND (date > ? OR id > ?)");
+            params.add(filter.getAfterDate());
+            params.add(filter.getAfterDate());
+            params.add(filter.getAfterId());
+        }
+        sql.append(" ORDER BY date, id LIMIT ?");
+        params.add(limit);
 
+        List<ExpenseRow> expenses = jdbcTemplate.query(sql.toString(), EXPENSE_READ_ROW_MAPPER, params.toArray());
+        selectExpensePageRows.record(expenses.size());
+        return expenses;
+    }
 
+    // Recorre todos los gastos entregando cada fila al handler a medida que se leen, sin armar una lista.
+    // Las columnas llegan en el orden id, amount_cents, category_id, category_name, date
+    @Override
+    public void streamExpenses(RowCallbackHandler rowCallbackHandler) {
+        long[] rows = {0};
+        String tenantId = TenantContext.getTenantId();
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(SELECT_EXPENSES_FOR_EXPORT,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setString(1, tenantId);
+                ps.setFetchSize(exportFetchSize);
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                rowCallbackHandler.processRow(rs);
+                rows[0]++;
+            });
+        } finally {
+            // También se registra si el cliente cortó la descarga a mitad de camino
+            streamExpensesRows.record(rows[0]);
+        }
+    }
 
-    // Clase interna que permite mapear cada resultado del ResultSet a las propiedades de la entidad
+    // Clase interna que permite mapear cada resultado del ResultSet a las propiedades de la entidad.
+    // Lee por posición según EXPENSE_COLUMNS, sin buscar cada columna por nombre
     static class ExpenseRowMapper implements RowMapper<Expense> {
         @Override
         public Expense mapRow(ResultSet rs, int rowNum) throws SQLException {
             Expense expense = new Expense();
-            expense.setId(rs.getLong("id"));
-            expense.setAmount(rs.getDouble("amount"));
-            expense.setCategoryId(rs.getLong("category_id"));
-            expense.setCategoryName(rs.getString("category_name"));
-            expense.setDate(rs.getString("date"));
+            expense.setId(rs.getLong(1));
+            expense.setAmountCents(rs.getLong(2));
+            expense.setCategoryId(rs.getLong(3));
+            expense.setCategoryName(rs.getString(4));
+            expense.setDate(rs.getObject(5, LocalDate.class));
             return expense;
         }
     }
 
-    // Clase interna que permite mapear cada resultado del ResultSet a las propiedades de la entidad
-    static class ExpenseCategoryRowMapper implements RowMapper<ExpenseCategory> {
+    // Igual que ExpenseRowMapper pero al modelo de lectura de los listados
+    static class ExpenseReadRowMapper implements RowMapper<ExpenseRow> {
         @Override
-        public ExpenseCategory mapRow(ResultSet rs, int rowNum) throws SQLException {
-            ExpenseCategory expenseCategory = new ExpenseCategory();
-            expenseCategory.setId(rs.getLong("id"));
-            expenseCategory.setName(rs.getString("name"));
-            return expenseCategory;
+        public ExpenseRow mapRow(ResultSet rs, int rowNum) throws SQLException {
+            return new ExpenseRow(
+                    rs.getLong(1),
+                    rs.getLong(2),
+                    rs.getLong(3),
+                    rs.getString(4),
+                    rs.getObject(5, LocalDate.class));
         }
     }
 
@@ -0,0 +1,278 @@
+package com.soyhenry.expenseapp.repository.impl;
+
+import com.soyhenry.expenseapp.domain.Expense;
+import com.soyhenry.expenseapp.domain.ExpenseBucketSum;
+import com.soyhenry.expenseapp.domain.ExpenseCategory;
+import com.soyhenry.expenseapp.domain.ExpenseRollup;
+import com.soyhenry.expenseapp.domain.Money;
+import com.soyhenry.expenseapp.domain.MonthlyTotal;
+import com.soyhenry.expenseapp.dto.response.CategoryExpenseSumResponseDto;
+import com.soyhenry.expenseapp.dto.response.RollupRebuildResponseDto;
+import com.soyhenry.expenseapp.event.ExpenseChangedEvent;
+import com.soyhenry.expenseapp.repository.ExpenseRollupRepository;
+import com.soyhenry.expenseapp.tenant.TenantContext;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Repository
+@Timed(value = "expense.repository", histogram = true, percentiles = {0.5, 0.95, 0.99})
+public class ExpenseRollupRepositoryImpl implements ExpenseRollupRepository {
+    // Suma el delta al bucket (cuenta, año, mes, categoría), creándolo si todavía no existe
+    private static final String MERGE_ROLLUP_DELTA =
+            "MERGE INTO ExpenseRollup r " +
+            "USING (VALUES (CAST(? AS VARCHAR(64)), CAST(? AS INT), CAST(? AS INT), CAST(? AS BIGINT), CAST(? AS BIGINT), CAST(? AS BIGINT))) " +
+            "AS d(tenant_id, expense_year, expense_month, category_id, cents, cnt) " +
+            "ON r.tenant_id = d.tenant_id AND r.expense_year = d.expense_year AND r.expense_month = d.expense_month " +
+            "AND r.category_id = d.category_id " +
+            "WHEN MATCHED THEN UPDATE SET total_cents = r.total_cents + d.cents, expense_count = r.expense_count + d.cnt " +
+            "WHEN NOT MATCHED THEN INSERT (tenant_id, expense_year, expense_month, category_id, total_cents, expense_count) " +
+            "VALUES (d.tenant_id, d.expense_year, d.expense_month, d.category_id, d.cents, d.cnt)";
+    // Intentos del MERGE cuando otra transacción crea el mismo bucket a la vez; entre intentos se espera
+    // MERGE_RETRY_BACKOFF_MILLIS * intento para darle tiempo a confirmar
+    private static final int MAX_MERGE_ATTEMPTS = 10;
+    private static final long MERGE_RETRY_BACKOFF_MILLIS = 10;
+    private static final String DELETE_EMPTY_ROLLUP =
+            "DELETE FROM ExpenseRollup WHERE tenant_id = ? AND expense_year = ? AND expense_month = ? AND category_id = ? AND expense_count = 0";
+    private static final String SELECT_SUM_BY_MONTH =
+            "SELECT COALESCE(SUM(total_cents), 0) FROM ExpenseRollup WHERE tenant_id = ? AND expense_year = ? AND expense_month = ?";
+    private static final String SELECT_TOTAL_SUM = "SELECT COALESCE(SUM(total_cents), 0) FROM ExpenseRollup WHERE tenant_id = ?";
+    private static final String SELECT_SUM_BY_CATEGORY =
+            "SELECT COALESCE(SUM(total_cents), 0), COALESCE(SUM(expense_count), 0) FROM ExpenseRollup WHERE tenant_id = ? AND category_id = ?";
+    private static final String SELECT_EXPENSE_COUNT_BY_CATEGORY =
+            "SELECT category_id, SUM(expense_count) FROM ExpenseRollup WHERE tenant_id = ? GROUP BY category_id";
+    // La tabla de acumulados tiene una fila por cuenta, mes y categoría, así que filtrar por (año * 100 + mes) es barato
+    private static final String SELECT_SUMS_BY_MONTH =
+            "SELECT expense_year, expense_month, SUM(total_cents), SUM(expense_count) FROM ExpenseRollup " +
+            "WHERE tenant_id = ? AND expense_year * 100 + expense_month BETWEEN ? AND ? GROUP BY expense_year, expense_month";
+    private static final String SELECT_SUMS_BY_MONTH_AND_CATEGORY =
+            "SELECT r.expense_year, r.expense_month, r.category_id, c.name, r.total_cents, r.expense_count " +
+            "FROM ExpenseRollup r JOIN ExpenseCategory c ON c.id = r.category_id " +
+            "WHERE r.tenant_id = ? AND r.expense_year * 100 + r.expense_month BETWEEN ? AND ?";
+    private static final String SELECT_MONTHLY_TOTALS =
+            "SELECT expense_year, expense_month, SUM(total_cents) FROM ExpenseRollup WHERE tenant_id = ? GROUP BY expense_year, expense_month";
+    private static final String SELECT_ALL_ROLLUPS =
+            "SELECT expense_year, expense_month, category_id, total_cents, expense_count FROM ExpenseRollup WHERE tenant_id = ?";
+    private static final String SELECT_ROLLUPS_FROM_EXPENSE =
+            "SELECT YEAR(date) AS expense_year, MONTH(date) AS expense_month, category_id, " +
+            "SUM(amount_cents) AS total_cents, COUNT(*) AS expense_count " +
+            "FROM Expense WHERE tenant_id = ? GROUP BY YEAR(date), MONTH(date), category_id";
+    private static final String DELETE_ALL_ROLLUPS = "DELETE FROM ExpenseRollup WHERE tenant_id = ?";
+    private static final String INSERT_ROLLUP =
+            "INSERT INTO ExpenseRollup (tenant_id, expense_year, expense_month, category_id, total_cents, expense_count) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    // Todas las escrituras sobre Expense pasan por sus acumulados, así que desde acá se avisa qué meses cambiaron
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ExpenseRollupRepositoryImpl(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void addExpense(Expense expense) {
+        String tenantId = TenantContext.getTenantId();
+        applyDelta(tenantId, expense, expense.getAmountCents(), 1);
+        eventPublisher.publishEvent(new ExpenseChangedEvent(tenantId, Set.of(YearMonth.from(expense.getDate()))));
+    }
+
+    // Agrupa los gastos por bucket antes de escribir, así un lote toca cada bucket una sola vez.
+    // Cada bucket se escribe con su propio MERGE y no con un batch de JDBC: si falla uno por un alta concurrente del
+    // mismo bucket el batch pudo haber aplicado el resto, y reintentarlo entero sumaría dos veces
+    @Override
+    public void addExpenses(List<Expense> expenses) {
+        String tenantId = TenantContext.getTenantId();
+        Map<String, ExpenseRollup> deltas = new HashMap<>();
+        for (Expense expense : expenses) {
+            ExpenseRollup delta = deltas.computeIfAbsent(
+                    expense.getDate().getYear() + "-" + expense.getDate().getMonthValue() + "-" + expense.getCategoryId(),
+                    key -> new ExpenseRollup(expense.getDate().getYear(), expense.getDate().getMonthValue(),
+                            expense.getCategoryId(), 0, 0));
+            delta.setTotalCents(delta.getTotalCents() + expense.getAmountCents());
+            delta.setExpenseCount(delta.getExpenseCount() + 1);
+        }
+
+        Set<YearMonth> months = new HashSet<>();
+        for (ExpenseRollup delta : deltas.values()) {
+            mergeDelta(tenantId, delta.getYear(), delta.getMonth(), delta.getCategoryId(), delta.getTotalCents(),
+                    delta.getExpenseCount());
+            months.add(YearMonth.of(delta.getYear(), delta.getMonth()));
+        }
+        eventPublisher.publishEvent(new ExpenseChangedEvent(tenantId, months));
+    }
+
+    @Override
+    public void removeExpense(Expense expense) {
+        String tenantId = TenantContext.getTenantId();
+        applyDelta(tenantId, expense, -expense.getAmountCents(), -1);
+        // Si el bucket quedó sin gastos lo eliminamos para que no aparezca en las lecturas
+        jdbcTemplate.update(DELETE_EMPTY_ROLLUP,
+                tenantId,
+                expense.getDate().getYear(),
+                expense.getDate().getMonthValue(),
+                expense.getCategoryId());
+        eventPublisher.publishEvent(new ExpenseChangedEvent(tenantId, Set.of(YearMonth.from(expense.getDate()))));
+    }
+
+    private void applyDelta(String tenantId, Expense expense, long cents, long count) {
+        mergeDelta(tenantId, expense.getDate().getYear(), expense.getDate().getMonthValue(), expense.getCategoryId(),
+                cents, count);
+    }
+
+    // Dos transacciones que registran a la vez el primer gasto de un bucket pueden tomar las dos la rama NOT MATCHED,
+    // y la segunda falla por la clave primaria aunque su gasto sea válido. Falla sólo esa sentencia, así que se
+    // reintenta: una vez confirmado el bucket de la otra transacción, el MERGE cae en la rama MATCHED
+    private void mergeDelta(String tenantId, int year, int month, long categoryId, long cents, long count) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                jdbcTemplate.update(MERGE_ROLLUP_DELTA, tenantId, year, month, categoryId, cents, count);
+                return;
+            } catch (DuplicateKeyException e) {
+                if (attempt == MAX_MERGE_ATTEMPTS) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(MERGE_RETRY_BACKOFF_MILLIS * attempt);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    @Override
+    public long selectSumByMonth(int year, int month) {
+        return jdbcTemplate.queryForObject(SELECT_SUM_BY_MONTH, Long.class, TenantContext.getTenantId(), year, month);
+    }
+
+    @Override
+    public long selectTotalSum() {
+        return jdbcTemplate.queryForObject(SELECT_TOTAL_SUM, Long.class, TenantContext.getTenantId());
+    }
+
+    @Override
+    public CategoryExpenseSumResponseDto selectSumByCategory(ExpenseCategory category) {
+        return jdbcTemplate.queryForObject(SELECT_SUM_BY_CATEGORY,
+                (rs, rowNum) -> new CategoryExpenseSumResponseDto(category.getName(), Money.toAmount(rs.getLong(1)), rs.getLong(2)),
+                TenantContext.getTenantId(), category.getId());
+    }
+
+    @Override
+    public Map<Long, Long> selectExpenseCountByCategory() {
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query(SELECT_EXPENSE_COUNT_BY_CATEGORY, rs -> {
+            counts.put(rs.getLong(1), rs.getLong(2));
+        }, TenantContext.getTenantId());
+        return counts;
+    }
+
+    // Totales por mes (y por categoría si se pide) para los meses completos entre from y to
+    @Override
+    public List<ExpenseBucketSum> selectSumsByMonth(YearMonth from, YearMonth to, boolean byCategory) {
+        int fromKey = from.getYear() * 100 + from.getMonthValue();
+        int toKey = to.getYear() * 100 + to.getMonthValue();
+        String tenantId = TenantContext.getTenantId();
+        if (byCategory) {
+            return jdbcTemplate.query(SELECT_SUMS_BY_MONTH_AND_CATEGORY,
+                    (rs, rowNum) -> new ExpenseBucketSum(LocalDate.of(rs.getInt(1), rs.getInt(2), 1),
+                            rs.getLong(3), rs.getString(4), rs.getLong(5), rs.getLong(6)),
+                    tenantId, fromKey, toKey);
+        }
+        return jdbcTemplate.query(SELECT_SUMS_BY_MONTH,
+                (rs, rowNum) -> new ExpenseBucketSum(LocalDate.of(rs.getInt(1), rs.getInt(2), 1),
+                        0, null, rs.getLong(3), rs.getLong(4)),
+                tenantId, fromKey, toKey);
+    }
+
+    // Un total en centavos por mes con gastos de la cuenta, sumando sus categorías
+    @Override
+    public List<MonthlyTotal> selectMonthlyTotals() {
+        return jdbcTemplate.query(SELECT_MONTHLY_TOTALS,
+                (rs, rowNum) -> new MonthlyTotal(YearMonth.of(rs.getInt(1), rs.getInt(2)), rs.getLong(3)),
+                TenantContext.getTenantId());
+    }
+
+    // Recalcula los acumulados de la cuenta desde la tabla Expense y reporta los buckets que se habían desviado.
+    // Con SERIALIZABLE ninguna escritura concurrente puede colarse entre la lectura y el reemplazo.
+    @Override
+    @Transactional(isolation = Isolation.SERIALIZABLE)
+    public RollupRebuildResponseDto rebuild() {
+        String tenantId = TenantContext.getTenantId();
+        List<ExpenseRollup> expected = jdbcTemplate.query(SELECT_ROLLUPS_FROM_EXPENSE, new ExpenseRollupRowMapper(), tenantId);
+        List<ExpenseRollup> current = jdbcTemplate.query(SELECT_ALL_ROLLUPS, new ExpenseRollupRowMapper(), tenantId);
+
+        Map<String, ExpenseRollup> currentByKey = new HashMap<>();
+        for (ExpenseRollup rollup : current) {
+            currentByKey.put(bucketKey(rollup), rollup);
+        }
+
+        List<String> driftedBuckets = new ArrayList<>();
+        Set<YearMonth> driftedMonths = new HashSet<>();
+        for (ExpenseRollup rollup : expected) {
+            ExpenseRollup stored = currentByKey.remove(bucketKey(rollup));
+            if (stored == null
+                    || stored.getExpenseCount() != rollup.getExpenseCount()
+                    || stored.getTotalCents() != rollup.getTotalCents()) {
+                driftedBuckets.add(bucketKey(rollup));
+                driftedMonths.add(YearMonth.of(rollup.getYear(), rollup.getMonth()));
+            }
+        }
+        // Los que quedaron en el mapa son buckets que ya no tienen gastos en la tabla base
+        driftedBuckets.addAll(currentByKey.keySet());
+        for (ExpenseRollup rollup : currentByKey.values()) {
+            driftedMonths.add(YearMonth.of(rollup.getYear(), rollup.getMonth()));
+        }
+
+        jdbcTemplate.update(DELETE_ALL_ROLLUPS, tenantId);
+        jdbcTemplate.batchUpdate(INSERT_ROLLUP, expected, expected.size(), (ps, rollup) -> {
+            ps.setString(1, tenantId);
+            ps.setInt(2, rollup.getYear());
+            ps.setInt(3, rollup.getMonth());
+            ps.setLong(4, rollup.getCategoryId());
+            ps.setLong(5, rollup.getTotalCents());
+            ps.setLong(6, rollup.getExpenseCount());
+        });
+
+        // Las respuestas cacheadas de los meses corregidos dejan de ser válidas
+        if (!driftedMonths.isEmpty()) {
+            eventPublisher.publishEvent(new ExpenseChangedEvent(tenantId, driftedMonths));
+        }
+        return new RollupRebuildResponseDto(expected.size(), driftedBuckets);
+    }
+
+    private String bucketKey(ExpenseRollup rollup) {
+        return rollup.getYear() + "-" + rollup.getMonth() + "/categoria " + rollup.getCategoryId();
+    }
+
+    // Clase interna que permite mapear cada resultado del ResultSet a las propiedades del acumulado
+    static class ExpenseRollupRowMapper implements RowMapper<ExpenseRollup> {
+        @Override
+        public ExpenseRollup mapRow(ResultSet rs, int rowNum) throws SQLException {
+            ExpenseRollup rollup = new ExpenseRollup();
+            rollup.setYear(rs.getInt("expense_year"));
+            rollup.setMonth(rs.getInt("expense_month"));
+            rollup.setCategoryId(rs.getLong("category_id"));
+            rollup.setTotalCents(rs.getLong("total_cents"));
+            rollup.setExpenseCount(rs.getLong("expense_count"));
+            return rollup;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.soyhenry.expenseapp.repository.impl;
+
+import com.soyhenry.expenseapp.domain.Income;
+import com.soyhenry.expenseapp.domain.MonthlyTotal;
+import com.soyhenry.expenseapp.event.IncomeChangedEvent;
+import com.soyhenry.expenseapp.repository.IncomeRepository;
+import com.soyhenry.expenseapp.tenant.TenantContext;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Ingresos de la cuenta del hilo actual. Igual que con los gastos, cada escritura mantiene en la misma transacción
+// los acumulados por mes de IncomeRollup, de donde sale la parte mensual del balance
+@Repository
+@Timed(value = "expense.repository", histogram = true, percentiles = {0.5, 0.95, 0.99})
+public class IncomeRepositoryImpl implements IncomeRepository {
+    // Columnas en el orden en que las lee el row mapper
+    private static final String INCOME_COLUMNS = "id, amount_cents, description, date";
+    private static final String INSERT_INTO_INCOME = "INSERT INTO Income (tenant_id, amount_cents, description, date) VALUES (?, ?, ?, ?)";
+    private static final String UPDATE_INCOME_BY_ID = "UPDATE Income SET amount_cents = ?, description = ?, date = ? WHERE id = ? AND tenant_id = ?";
+    private static final String DELETE_FROM_INCOME_BY_ID = "DELETE FROM Income WHERE id = ? AND tenant_id = ?";
+    private static final String SELECT_INCOME_BY_ID = "SELECT " + INCOME_COLUMNS + " FROM Income WHERE id = ? AND tenant_id = ?";
+    private static final String SELECT_INCOME_BY_ID_FOR_UPDATE =
+            "SELECT " + INCOME_COLUMNS + " FROM Income WHERE id = ? AND tenant_id = ? FOR UPDATE";
+    private static final String SELECT_INCOMES_BY_DATE =
+            "SELECT " + INCOME_COLUMNS + " FROM Income WHERE tenant_id = ? AND date BETWEEN ? AND ? ORDER BY date, id LIMIT ?";
+    private static final String SELECT_INCOME_SUM_BY_DATE =
+            "SELECT COALESCE(SUM(amount_cents), 0) FROM Income WHERE tenant_id = ? AND date BETWEEN ? AND ?";
+    // Suma el delta al bucket (cuenta, año, mes), creándolo si todavía no existe
+    private static final String MERGE_ROLLUP_DELTA =
+            "MERGE INTO IncomeRollup r " +
+            "USING (VALUES (CAST(? AS VARCHAR(64)), CAST(? AS INT), CAST(? AS INT), CAST(? AS BIGINT), CAST(? AS BIGINT))) " +
+            "AS d(tenant_id, income_year, income_month, cents, cnt) " +
+            "ON r.tenant_id = d.tenant_id AND r.income_year = d.income_year AND r.income_month = d.income_month " +
+            "WHEN MATCHED THEN UPDATE SET total_cents = r.total_cents + d.cents, income_count = r.income_count + d.cnt " +
+            "WHEN NOT MATCHED THEN INSERT (tenant_id, income_year, income_month, total_cents, income_count) " +
+            "VALUES (d.tenant_id, d.income_year, d.income_month, d.cents, d.cnt)";
+    private static final String DELETE_EMPTY_ROLLUP =
+            "DELETE FROM IncomeRollup WHERE tenant_id = ? AND income_year = ? AND income_month = ? AND income_count = 0";
+    private static final String SELECT_MONTHLY_TOTALS =
+            "SELECT income_year, income_month, total_cents FROM IncomeRollup WHERE tenant_id = ?";
+
+    private static final RowMapper<Income> INCOME_ROW_MAPPER = new IncomeRowMapper();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public IncomeRepositoryImpl(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    @Transactional
+    public Integer insertIncome(Income income) {
+        String tenantId = TenantContext.getTenantId();
+        Integer inserted = jdbcTemplate.update(INSERT_INTO_INCOME,
+                tenantId,
+                income.getAmountCents(),
+                income.getDescription(),
+                income.getDate());
+        applyDelta(tenantId, income, income.getAmountCents(), 1);
+        eventPublisher.publishEvent(new IncomeChangedEvent(tenantId, Set.of(YearMonth.from(income.getDate()))));
+        return inserted;
+    }
+
+    @Override
+    @Transactional
+    public Integer updateIncome(Long id, Income income) {
+        String tenantId = TenantContext.getTenantId();
+        // Bloqueamos la fila actual para conocer el bucket del que hay que descontar el ingreso
+        Income previous = selectIncomeForUpdate(tenantId, id);
+        if (previous == null) {
+            return 0;
+        }
+        Integer updated = jdbcTemplate.update(UPDATE_INCOME_BY_ID,
+                income.getAmountCents(),
+                income.getDescription(),
+                income.getDate(),
+                id,
+                tenantId);
+
+        removeFromRollup(tenantId, previous);
+        applyDelta(tenantId, income, income.getAmountCents(), 1);
+        Set<YearMonth> months = new HashSet<>();
+        months.add(YearMonth.from(previous.getDate()));
+        months.add(YearMonth.from(income.getDate()));
+        eventPublisher.publishEvent(new IncomeChangedEvent(tenantId, months));
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public Integer deleteIncome(Long id) {
+        String tenantId = TenantContext.getTenantId();
+        Income previous = selectIncomeForUpdate(tenantId, id);
+        if (previous == null) {
+            return 0;
+        }
+        Integer deleted = jdbcTemplate.update(DELETE_FROM_INCOME_BY_ID, id, tenantId);
+        removeFromRollup(tenantId, previous);
+        eventPublisher.publishEvent(new IncomeChangedEvent(tenantId, Set.of(YearMonth.from(previous.getDate()))));
+        return deleted;
+    }
+
+    private Income selectIncomeForUpdate(String tenantId, Long id) {
+        try {
+            return jdbcTemplate.queryForObject(SELECT_INCOME_BY_ID_FOR_UPDATE, INCOME_ROW_MAPPER, id, tenantId);
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
+    private void removeFromRollup(String tenantId, Income income) {
+        applyDelta(tenantId, income, -income.getAmountCents(), -1);
+        // Si el bucket quedó sin ingresos lo eliminamos para que no aparezca en las lecturas
+        jdbcTemplate.update(DELETE_EMPTY_ROLLUP, tenantId, income.getDate().getYear(), income.getDate().getMonthValue());
+    }
+
+    private void applyDelta(String tenantId, Income income, long amountCents, long count) {
+        jdbcTemplate.update(MERGE_ROLLUP_DELTA,
+                tenantId,
+                income.getDate().getYear(),
+                income.getDate().getMonthValue(),
+                amountCents,
+                count);
+    }
+
+    @Override
+    public Income selectIncomeById(Long id) {
+        try {
+            return jdbcTemplate.queryForObject(SELECT_INCOME_BY_ID, INCOME_ROW_MAPPER, id, TenantContext.getTenantId());
+        } catch (EmptyResultDataAccessException e) {
+            // Si no se encuentra el ingreso, devolvemos null
+            return null;
+        }
+    }
+
+    @Override
+    public List<Income> selectIncomes(LocalDate from, LocalDate to, int limit) {
+        return jdbcTemplate.query(SELECT_INCOMES_BY_DATE, INCOME_ROW_MAPPER, TenantContext.getTenantId(), from, to, limit);
+    }
+
+    // Suma en centavos de los ingresos de un rango de días, recorriendo el índice (tenant_id, date, id) sólo en ese tramo
+    @Override
+    public long selectIncomeSum(LocalDate from, LocalDate to) {
+        return jdbcTemplate.queryForObject(SELECT_INCOME_SUM_BY_DATE, Long.class, TenantContext.getTenantId(), from, to);
+    }
+
+    // Un total en centavos por mes con ingresos de la cuenta
+    @Override
+    public List<MonthlyTotal> selectMonthlyTotals() {
+        return jdbcTemplate.query(SELECT_MONTHLY_TOTALS,
+                (rs, rowNum) -> new MonthlyTotal(YearMonth.of(rs.getInt(1), rs.getInt(2)), rs.getLong(3)),
+                TenantContext.getTenantId());
+    }
+
+    // Clase interna que permite mapear cada resultado del ResultSet a las propiedades de la entidad.
+    // Lee por posición según INCOME_COLUMNS
+    static class IncomeRowMapper implements RowMapper<Income> {
+        @Override
+        public Income mapRow(ResultSet rs, int rowNum) throws SQLException {
+            Income income = new Income();
+            income.setId(rs.getLong(1));
+            income.setAmountCents(rs.getLong(2));
+            income.setDescription(rs.getString(3));
+            income.setDate(rs.getObject(4, LocalDate.class));
+            return income;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.soyhenry.expenseapp.repository.impl;
+
+import com.soyhenry.expenseapp.domain.ExpenseCategory;
+import com.soyhenry.expenseapp.domain.SpecialExpense;
+import com.soyhenry.expenseapp.event.SpecialExpenseChangedEvent;
+import com.soyhenry.expenseapp.repository.ExpenseCategoryRepository;
+import com.soyhenry.expenseapp.repository.SpecialExpenseRepository;
+import com.soyhenry.expenseapp.tenant.TenantContext;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+// Gastos especiales de la cuenta del hilo actual. Cada escritura publica un SpecialExpenseChangedEvent con el
+// registro resultante para que el índice de búsqueda se actualice cuando la transacción hace commit
+@Repository
+@Timed(value = "expense.repository", histogram = true, percentiles = {0.5, 0.95, 0.99})
+public class SpecialExpenseRepositoryImpl implements SpecialExpenseRepository {
+    // Columnas en el orden en que las lee el row mapper
+    private static final String SPECIAL_EXPENSE_COLUMNS = "id, amount_cents, category_id, category_name, date, reason";
+    private static final String INSERT_INTO_SPECIAL_EXPENSE =
+            "INSERT INTO SpecialExpense (tenant_id, amount_cents, category_id, category_name, date, reason) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_SPECIAL_EXPENSE_BY_ID =
+            "UPDATE SpecialExpense SET amount_cents = ?, category_id = ?, category_name = ?, date = ?, reason = ? WHERE id = ? AND tenant_id = ?";
+    private static final String DELETE_FROM_SPECIAL_EXPENSE_BY_ID = "DELETE FROM SpecialExpense WHERE id = ? AND tenant_id = ?";
+    private static final String SELECT_SPECIAL_EXPENSE_BY_ID =
+            "SELECT " + SPECIAL_EXPENSE_COLUMNS + " FROM SpecialExpense WHERE id = ? AND tenant_id = ?";
+    private static final String SELECT_SPECIAL_EXPENSES_BY_IDS =
+            "SELECT " + SPECIAL_EXPENSE_COLUMNS + " FROM SpecialExpense WHERE tenant_id = ? AND id = ANY(?)";
+    private static final String SELECT_SPECIAL_EXPENSE_SUM_BY_DATE =
+            "SELECT COALESCE(SUM(amount_cents), 0) FROM SpecialExpense WHERE tenant_id = ? AND date BETWEEN ? AND ?";
+    private static final String SELECT_SEARCH_FIELDS = "SELECT id, category_name, reason FROM SpecialExpense WHERE tenant_id = ?";
+
+    private static final RowMapper<SpecialExpense> SPECIAL_EXPENSE_ROW_MAPPER = new SpecialExpenseRowMapper();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ExpenseCategoryRepository expenseCategoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    // Cantidad de filas que el driver trae por viaje al cargar el índice de búsqueda
+    private final int fetchSize;
+
+    public SpecialExpenseRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                        ExpenseCategoryRepository expenseCategoryRepository,
+                                        ApplicationEventPublisher eventPublisher,
+                                        @Value("${expenseapp.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expenseCategoryRepository = expenseCategoryRepository;
+        this.eventPublisher = eventPublisher;
+        this.fetchSize = fetchSize;
+    }
+
+    @Override
+    @Transactional
+    public Long insertSpecialExpense(SpecialExpense specialExpense) {
+        String tenantId = TenantContext.getTenantId();
+        resolveCategory(specialExpense);
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_INTO_SPECIAL_EXPENSE, new String[]{"id"});
+            ps.setString(1, tenantId);
+            ps.setLong(2, specialExpense.getAmountCents());
+            ps.setLong(3, specialExpense.getCategoryId());
+            ps.setString(4, specialExpense.getCategoryName());
+            ps.setObject(5, specialExpense.getDate());
+            ps.setString(6, specialExpense.getReason());
+            return ps;
+        }, keyHolder);
+
+        specialExpense.setId(keyHolder.getKey().longValue());
+        eventPublisher.publishEvent(new SpecialExpenseChangedEvent(tenantId, specialExpense.getId(), specialExpense));
+        return specialExpense.getId();
+    }
+
+    @Override
+    @Transactional
+    public Integer updateSpecialExpense(Long id, SpecialExpense specialExpense) {
+        String tenantId = TenantContext.getTenantId();
+        resolveCategory(specialExpense);
+        Integer updated = jdbcTemplate.update(UPDATE_SPECIAL_EXPENSE_BY_ID,
+                specialExpense.getAmountCents(),
+                specialExpense.getCategoryId(),
+                specialExpense.getCategoryName(),
+                specialExpense.getDate(),
+                specialExpense.getReason(),
+                id,
+                tenantId);
+        if (updated > 0) {
+            specialExpense.setId(id);
+            eventPublisher.publishEvent(new SpecialExpenseChangedEvent(tenantId, id, specialExpense));
+        }
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public Integer deleteSpecialExpense(Long id) {
+        String tenantId = TenantContext.getTenantId();
+        Integer deleted = jdbcTemplate.update(DELETE_FROM_SPECIAL_EXPENSE_BY_ID, id, tenantId);
+        if (deleted > 0) {
+            eventPublisher.publishEvent(new SpecialExpenseChangedEvent(tenantId, id, null));
+        }
+        return deleted;
+    }
+
+    // Completa el gasto con la categoría de la cuenta, creándola si todavía no existe
+    private void resolveCategory(SpecialExpense specialExpense) {
+        ExpenseCategory category = expenseCategoryRepository.findOrCreateByName(specialExpense.getCategoryName());
+        specialExpense.setCategoryId(category.getId());
+        specialExpense.setCategoryName(category.getName());
+    }
+
+    @Override
+    public SpecialExpense selectSpecialExpenseById(Long id) {
+        try {
+            return jdbcTemplate.queryForObject(SELECT_SPECIAL_EXPENSE_BY_ID, SPECIAL_EXPENSE_ROW_MAPPER, id, TenantContext.getTenantId());
+        } catch (EmptyResultDataAccessException e) {
+            // Si no se encuentra el gasto especial, devolvemos null
+            return null;
+        }
+    }
+
+    // Lee por clave primaria los resultados de una búsqueda; el orden de la lista no está garantizado
+    @Override
+    public List<SpecialExpense> selectSpecialExpensesByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(SELECT_SPECIAL_EXPENSES_BY_IDS, SPECIAL_EXPENSE_ROW_MAPPER,
+                TenantContext.getTenantId(), ids.toArray(new Long[0]));
+    }
+
+    // Suma en centavos de los gastos especiales de la cuenta entre dos fechas inclusive
+    @Override
+    public long selectSpecialExpenseSum(LocalDate from, LocalDate to) {
+        return jdbcTemplate.queryForObject(SELECT_SPECIAL_EXPENSE_SUM_BY_DATE, Long.class, TenantContext.getTenantId(), from, to);
+    }
+
+    // Recorre los campos que se indexan para la búsqueda: id, category_name y reason
+    @Override
+    public void streamSearchFields(RowCallbackHandler rowCallbackHandler) {
+        String tenantId = TenantContext.getTenantId();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_SEARCH_FIELDS,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setString(1, tenantId);
+            ps.setFetchSize(fetchSize);
+            return ps;
+        }, rowCallbackHandler);
+    }
+
+    // Clase interna que permite mapear cada resultado del ResultSet a las propiedades de la entidad.
+    // Lee por posición según SPECIAL_EXPENSE_COLUMNS
+    static class SpecialExpenseRowMapper implements RowMapper<SpecialExpense> {
+        @Override
+        public SpecialExpense mapRow(ResultSet rs, int rowNum) throws SQLException {
+            SpecialExpense specialExpense = new SpecialExpense(rs.getLong(2),
+                    rs.getLong(3),
+                    rs.getString(4),
+                    rs.getObject(5, LocalDate.class),
+                    rs.getString(6));
+            specialExpense.setId(rs.getLong(1));
+            return specialExpense;
+        }
+    }
+}
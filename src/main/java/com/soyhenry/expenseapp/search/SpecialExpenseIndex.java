@@ -0,0 +1,330 @@
+package com.soyhenry.expenseapp.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.soyhenry.expenseapp.domain.SpecialExpense;
+import com.soyhenry.expenseapp.event.SpecialExpenseChangedEvent;
+import com.soyhenry.expenseapp.repository.SpecialExpenseRepository;
+import com.soyhenry.expenseapp.tenant.TenantContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// Índice invertido en memoria sobre el motivo y la categoría de los gastos especiales de cada cuenta.
+// Cada término apunta a los ids que lo contienen, así que una búsqueda sólo recorre las listas de sus términos
+// en lugar de escanear la tabla con LIKE '%...%'. El índice de una cuenta se arma desde la BD la primera vez
+// que se busca y luego se mantiene con las escrituras que hacen commit.
+// Las métricas cache.* se publican con cache=expense.special-search
+@Component
+public class SpecialExpenseIndex {
+    // Términos de menos caracteres no se indexan: casi todos los registros los contienen
+    static final int MIN_TERM_LENGTH = 2;
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final SpecialExpenseRepository specialExpenseRepository;
+    private final Cache<String, TenantIndex> indexes;
+
+    public SpecialExpenseIndex(SpecialExpenseRepository specialExpenseRepository,
+                               @Value("${expenseapp.special-search.max-tenants:1000}") long maxTenants,
+                               MeterRegistry meterRegistry) {
+        this.specialExpenseRepository = specialExpenseRepository;
+        this.indexes = Caffeine.newBuilder()
+                .maximumSize(maxTenants)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes, "expense.special-search");
+    }
+
+    // Ids de la cuenta actual que contienen todos los términos de la consulta, del más reciente al más antiguo.
+    // Cada término de la consulta coincide con los términos indexados que empiezan con él
+    public SearchHits search(List<String> queryTerms, int limit) {
+        TenantIndex index = indexFor(TenantContext.getTenantId());
+        index.lock.readLock().lock();
+        try {
+            return index.search(queryTerms, limit);
+        } finally {
+            index.lock.readLock().unlock();
+        }
+    }
+
+    private TenantIndex indexFor(String tenantId) {
+        TenantIndex index = indexes.getIfPresent(tenantId);
+        if (index != null) {
+            return index;
+        }
+        // El índice se publica vacío y bloqueado antes de leer la tabla: así las escrituras que hagan commit
+        // durante la carga esperan y se aplican encima, y ninguna se pierde
+        TenantIndex created = new TenantIndex();
+        created.lock.writeLock().lock();
+        try {
+            TenantIndex existing = indexes.asMap().putIfAbsent(tenantId, created);
+            if (existing != null) {
+                return existing;
+            }
+            specialExpenseRepository.streamSearchFields(rs -> created.put(rs.getLong(1), rs.getString(2), rs.getString(3)));
+            return created;
+        } catch (RuntimeException e) {
+            indexes.asMap().remove(tenantId, created);
+            throw e;
+        } finally {
+            created.lock.writeLock().unlock();
+        }
+    }
+
+    // Si la cuenta todavía no tiene índice en memoria no hay nada que actualizar: se leerá completo al buscar
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSpecialExpenseChanged(SpecialExpenseChangedEvent event) {
+        TenantIndex index = indexes.getIfPresent(event.tenantId());
+        if (index == null) {
+            return;
+        }
+        index.lock.writeLock().lock();
+        try {
+            SpecialExpense specialExpense = event.specialExpense();
+            if (specialExpense == null) {
+                index.remove(event.id());
+            } else {
+                index.put(event.id(), specialExpense.getCategoryName(), specialExpense.getReason());
+            }
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+    }
+
+    // Separa el texto en términos en minúsculas y sin tildes, descartando los de menos de MIN_TERM_LENGTH caracteres
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase();
+        Set<String> terms = new LinkedHashSet<>();
+        for (String term : SEPARATORS.split(normalized)) {
+            if (term.length() >= MIN_TERM_LENGTH) {
+                terms.add(term);
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    public record SearchHits(List<Long> ids, int totalMatches) {
+    }
+
+    // Índice de una cuenta: la lista ordenada de ids de cada término (los términos en un TreeMap para resolver prefijos)
+    // y los términos de cada id, para verificar candidatos y para quitarlo al actualizarlo o eliminarlo
+    static class TenantIndex {
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final TreeMap<String, Postings> postings = new TreeMap<>();
+        private final Map<Long, String[]> termsById = new HashMap<>();
+
+        void put(long id, String categoryName, String reason) {
+            remove(id);
+            Set<String> terms = new LinkedHashSet<>(tokenize(categoryName));
+            terms.addAll(tokenize(reason));
+            for (String term : terms) {
+                postings.computeIfAbsent(term, ignored -> new Postings()).add(id);
+            }
+            termsById.put(id, terms.toArray(new String[0]));
+        }
+
+        void remove(long id) {
+            String[] terms = termsById.remove(id);
+            if (terms == null) {
+                return;
+            }
+            for (String term : terms) {
+                Postings ids = postings.get(term);
+                ids.remove(id);
+                if (ids.size == 0) {
+                    postings.remove(term);
+                }
+            }
+        }
+
+        // Se parte del término de la consulta con menos coincidencias y cada candidato se verifica contra el resto,
+        // recorriendo del id más alto al más bajo. Así el costo depende de los términos buscados y no del tamaño
+        // del índice, y los prefijos que abarcan muchos términos no se llegan a materializar si hay uno más selectivo
+        SearchHits search(List<String> queryTerms, int limit) {
+            int termCount = queryTerms.size();
+            // Para cada término: su lista si coincide con un único término indexado, o todas las del prefijo
+            List<List<Postings>> matches = new ArrayList<>(termCount);
+            int driver = -1;
+            long driverSize = Long.MAX_VALUE;
+            for (String queryTerm : queryTerms) {
+                List<Postings> termMatches = new ArrayList<>(postings.subMap(queryTerm, queryTerm + Character.MAX_VALUE).values());
+                long size = 0;
+                for (Postings ids : termMatches) {
+                    size += ids.size;
+                }
+                if (size == 0) {
+                    return new SearchHits(List.of(), 0);
+                }
+                if (size < driverSize) {
+                    driver = matches.size();
+                    driverSize = size;
+                }
+                matches.add(termMatches);
+            }
+
+            long[] candidates = candidates(matches.get(driver));
+            int candidateCount = matches.get(driver).size() == 1 ? matches.get(driver).get(0).size : candidates.length;
+            if (termCount == 1) {
+                // Un solo término: todos los candidatos coinciden y los más nuevos son los últimos
+                List<Long> newest = new ArrayList<>(Math.min(limit, candidateCount));
+                for (int i = candidateCount - 1; i >= 0 && newest.size() < limit; i--) {
+                    newest.add(candidates[i]);
+                }
+                return new SearchHits(newest, candidateCount);
+            }
+
+            // Los términos exactos se recorren en paralelo con los candidatos, de mayor a menor, como en un merge;
+            // para los prefijos se revisan los términos del propio registro
+            long[][] exactIds = new long[termCount][];
+            int[] cursors = new int[termCount];
+            for (int t = 0; t < termCount; t++) {
+                if (t != driver && matches.get(t).size() == 1) {
+                    exactIds[t] = matches.get(t).get(0).ids;
+                    cursors[t] = matches.get(t).get(0).size - 1;
+                }
+            }
+
+            List<Long> newest = new ArrayList<>(Math.min(limit, candidateCount));
+            int totalMatches = 0;
+            for (int i = candidateCount - 1; i >= 0; i--) {
+                long id = candidates[i];
+                if (matchesOthers(id, queryTerms, driver, exactIds, cursors)) {
+                    totalMatches++;
+                    if (newest.size() < limit) {
+                        newest.add(id);
+                    }
+                }
+            }
+            return new SearchHits(newest, totalMatches);
+        }
+
+        // Ids ordenados de las listas de un término; con una única lista se usa su arreglo sin copiarlo
+        private long[] candidates(List<Postings> termMatches) {
+            if (termMatches.size() == 1) {
+                return termMatches.get(0).ids;
+            }
+            int total = 0;
+            for (Postings ids : termMatches) {
+                total += ids.size;
+            }
+            long[] merged = new long[total];
+            int n = 0;
+            for (Postings ids : termMatches) {
+                System.arraycopy(ids.ids, 0, merged, n, ids.size);
+                n += ids.size;
+            }
+            // Un id puede tener varios términos con el mismo prefijo: se ordena y se quitan los repetidos
+            Arrays.sort(merged);
+            int distinct = 0;
+            for (int i = 0; i < merged.length; i++) {
+                if (i == 0 || merged[i] != merged[i - 1]) {
+                    merged[distinct++] = merged[i];
+                }
+            }
+            return distinct == merged.length ? merged : Arrays.copyOf(merged, distinct);
+        }
+
+        private boolean matchesOthers(long id, List<String> queryTerms, int driver, long[][] exactIds, int[] cursors) {
+            String[] docTerms = null;
+            for (int t = 0; t < queryTerms.size(); t++) {
+                if (t == driver) {
+                    continue;
+                }
+                if (exactIds[t] != null) {
+                    long[] ids = exactIds[t];
+                    int cursor = seekDown(ids, cursors[t], id);
+                    cursors[t] = cursor;
+                    if (cursor < 0 || ids[cursor] != id) {
+                        return false;
+                    }
+                    continue;
+                }
+                if (docTerms == null) {
+                    docTerms = termsById.get(id);
+                }
+                if (!anyStartsWith(docTerms, queryTerms.get(t))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // Última posición en ids[0..cursor] con un valor <= id, o -1 si no hay. Avanza a saltos que se duplican y
+        // termina con una búsqueda binaria, así que una lista mucho más larga que los candidatos no se recorre entera
+        static int seekDown(long[] ids, int cursor, long id) {
+            if (cursor < 0 || ids[cursor] <= id) {
+                return cursor;
+            }
+            int high = cursor;
+            int step = 1;
+            int low = high - step;
+            while (low >= 0 && ids[low] > id) {
+                high = low;
+                step <<= 1;
+                low = high - step;
+            }
+            // ids[high] > id y, si low >= 0, ids[low] <= id
+            int position = Arrays.binarySearch(ids, Math.max(low, 0), high, id);
+            return position >= 0 ? position : -position - 2;
+        }
+
+        private static boolean anyStartsWith(String[] terms, String prefix) {
+            for (String term : terms) {
+                if (term.startsWith(prefix)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // Lista ordenada de ids en un arreglo de long. Los ids nuevos son siempre los más altos, así que un alta
+    // es un agregado al final; actualizar o eliminar un registro viejo desplaza el resto del arreglo
+    static class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            position = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        void remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+        }
+
+    }
+}
@@ -1,20 +1,49 @@
 package com.soyhenry.expenseapp.service;
 
+import com.soyhenry.expenseapp.domain.DataVersion;
+import com.soyhenry.expenseapp.dto.ExpenseExportFormat;
+import com.soyhenry.expenseapp.dto.SeriesGranularity;
 import com.soyhenry.expenseapp.dto.response.MonthlyExpenseSumResponseDto;
+import com.soyhenry.expenseapp.dto.request.ExpenseFilterRequestDto;
 import com.soyhenry.expenseapp.dto.request.ExpenseRequestDto;
+import com.soyhenry.expenseapp.dto.response.BatchExpenseResponseDto;
+import com.soyhenry.expenseapp.dto.response.CategoryExpenseSumResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpenseCategoryUsageResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpensePageCompactResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpensePageResponseDto;
 import com.soyhenry.expenseapp.dto.response.ExpenseResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpenseSeriesCompactResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpenseSeriesResponseDto;
+import com.soyhenry.expenseapp.dto.response.RollupRebuildResponseDto;
 import com.soyhenry.expenseapp.exception.DAOException;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 public interface ExpenseService {
     String createExpense(ExpenseRequestDto expenseRequestDto);
+    CompletableFuture<String> submitExpense(ExpenseRequestDto expenseRequestDto);
+    BatchExpenseResponseDto createExpenses(List<ExpenseRequestDto> expenseRequestDtos);
     String updateExpense(Long id, ExpenseRequestDto expenseRequestDto);
     boolean deleteExpense(Long id) throws DAOException;
-    List<ExpenseResponseDto> getAllExpenses();
+    ExpensePageResponseDto getExpenses(ExpenseFilterRequestDto filterDto, int limit, String after);
+    ExpensePageCompactResponseDto getExpensesCompact(ExpenseFilterRequestDto filterDto, int limit, String after);
+    void exportExpenses(ExpenseExportFormat format, OutputStream outputStream) throws IOException;
     ExpenseResponseDto getExpenseById(Long id);
     MonthlyExpenseSumResponseDto getExpenseSumByMonth(int year, int month);
+    CompletableFuture<MonthlyExpenseSumResponseDto> getExpenseSumByMonthAsync(int year, int month);
     Double getTotalExpenseSum();
-
-   Double getExpensesByCategoryName(String name);
+    CompletableFuture<Double> getTotalExpenseSumAsync();
+    Set<String> getExpenseCategoryNames();
+    List<ExpenseCategoryUsageResponseDto> getExpenseCategoryUsage();
+    RollupRebuildResponseDto rebuildExpenseRollup();
+    CategoryExpenseSumResponseDto getExpenseSumByCategory(String name, String from, String to);
+    ExpenseSeriesResponseDto getExpenseSeries(String from, String to, SeriesGranularity granularity, boolean groupByCategory);
+    ExpenseSeriesCompactResponseDto getExpenseSeriesCompact(String from, String to, SeriesGranularity granularity, boolean groupByCategory);
+    DataVersion getDataVersion();
+    DataVersion getDataVersion(int year, int month);
+    DataVersion getCategoryVersion();
 }
@@ -0,0 +1,16 @@
+package com.soyhenry.expenseapp.service;
+
+import com.soyhenry.expenseapp.dto.IncomeDto;
+import com.soyhenry.expenseapp.dto.response.BalanceResponseDto;
+import com.soyhenry.expenseapp.dto.response.IncomeResponseDto;
+
+import java.util.List;
+
+public interface IncomeService {
+    String createIncome(IncomeDto incomeDto);
+    String updateIncome(Long id, IncomeDto incomeDto);
+    boolean deleteIncome(Long id);
+    IncomeResponseDto getIncomeById(Long id);
+    List<IncomeResponseDto> getIncomes(String from, String to, int limit);
+    BalanceResponseDto getBalance(String from, String to);
+}
@@ -0,0 +1,13 @@
+package com.soyhenry.expenseapp.service;
+
+import com.soyhenry.expenseapp.dto.SpecialExpenseDto;
+import com.soyhenry.expenseapp.dto.response.SpecialExpenseResponseDto;
+import com.soyhenry.expenseapp.dto.response.SpecialExpenseSearchResponseDto;
+
+public interface SpecialExpenseService {
+    Long createSpecialExpense(SpecialExpenseDto specialExpenseDto);
+    String updateSpecialExpense(Long id, SpecialExpenseDto specialExpenseDto);
+    boolean deleteSpecialExpense(Long id);
+    SpecialExpenseResponseDto getSpecialExpenseById(Long id);
+    SpecialExpenseSearchResponseDto searchSpecialExpenses(String query, int limit);
+}
@@ -1,25 +1,131 @@
 package com.soyhenry.expenseapp.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.soyhenry.expenseapp.buffer.ExpenseWriteBuffer;
+import com.soyhenry.expenseapp.cache.AggregateRequestCoalescer;
+import com.soyhenry.expenseapp.cache.ExpenseDataVersions;
+import com.soyhenry.expenseapp.cache.MonthlyExpenseSumCache;
+import com.soyhenry.expenseapp.domain.ApiFormats;
+import com.soyhenry.expenseapp.domain.DataVersion;
 import com.soyhenry.expenseapp.domain.Expense;
+import com.soyhenry.expenseapp.domain.ExpenseBucketSum;
+import com.soyhenry.expenseapp.domain.ExpenseCategory;
+import com.soyhenry.expenseapp.domain.ExpenseFilter;
+import com.soyhenry.expenseapp.domain.ExpenseRow;
+import com.soyhenry.expenseapp.domain.Money;
+import com.soyhenry.expenseapp.dto.ExpenseExportFormat;
+import com.soyhenry.expenseapp.dto.SeriesGranularity;
 import com.soyhenry.expenseapp.dto.response.MonthlyExpenseSumResponseDto;
 import com.soyhenry.expenseapp.dto.response.ExpenseCategoryResponseDto;
+import com.soyhenry.expenseapp.dto.request.ExpenseFilterRequestDto;
 import com.soyhenry.expenseapp.dto.request.ExpenseRequestDto;
+import com.soyhenry.expenseapp.dto.response.BatchExpenseItemResultDto;
+import com.soyhenry.expenseapp.dto.response.BatchExpenseResponseDto;
+import com.soyhenry.expenseapp.dto.response.CategoryExpenseSumResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpenseCategoryUsageResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpensePageCompactResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpensePageResponseDto;
 import com.soyhenry.expenseapp.dto.response.ExpenseResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpenseSeriesCompactDto;
+import com.soyhenry.expenseapp.dto.response.ExpenseSeriesCompactResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpenseSeriesDto;
+import com.soyhenry.expenseapp.dto.response.ExpenseSeriesPointDto;
+import com.soyhenry.expenseapp.dto.response.ExpenseSeriesResponseDto;
+import com.soyhenry.expenseapp.dto.response.RollupRebuildResponseDto;
+import com.soyhenry.expenseapp.exception.BadRequestException;
 import com.soyhenry.expenseapp.exception.DAOException;
 import com.soyhenry.expenseapp.exception.ResourceNotFoundExcepcion;
+import com.soyhenry.expenseapp.repository.ExpenseCategoryRepository;
+import com.soyhenry.expenseapp.tenant.TenantContext;
 import com.soyhenry.expenseapp.repository.ExpenseRepository;
+import com.soyhenry.expenseapp.repository.ExpenseRollupRepository;
 import com.soyhenry.expenseapp.service.ExpenseService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
 public class ExpenseServiceImpl implements ExpenseService {
+    private static final Logger log = LoggerFactory.getLogger(ExpenseServiceImpl.class);
+
+    private static final String CSV_HEADER = "id,amount,category_id,category_name,date\n";
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final ExpenseRepository expenseRepository;
+    private final ExpenseRollupRepository expenseRollupRepository;
+    private final ExpenseCategoryRepository expenseCategoryRepository;
+    // Validador para los ítems de un lote, que se validan de a uno para no rechazar el lote completo
+    private final Validator validator;
+    // Cantidad de gastos que se escriben por cada batch de JDBC
+    private final int batchChunkSize;
+    private final ObjectMapper objectMapper;
+    // Tamaño máximo de página que puede pedir un cliente en el listado
+    private final int maxPageSize;
+    // Cola de altas con escritura diferida; sólo se usa si expenseapp.write-behind.enabled=true
+    private final ExpenseWriteBuffer expenseWriteBuffer;
+    // Versiones de los datos para los ETags de los endpoints de consulta
+    private final ExpenseDataVersions expenseDataVersions;
+    // Sumas mensuales cacheadas; cada mes se invalida sólo cuando una escritura lo modifica
+    private final MonthlyExpenseSumCache monthlyExpenseSumCache;
+    // Cantidad máxima de períodos por serie en GET /api/v1/expense/series
+    private final int maxSeriesPoints;
+    // Agrupa los cálculos simultáneos de un mismo agregado en uno solo
+    private final AggregateRequestCoalescer aggregateRequestCoalescer;
 
-    public ExpenseServiceImpl(ExpenseRepository expenseRepository) {
+    public ExpenseServiceImpl(ExpenseRepository expenseRepository,
+                              ExpenseRollupRepository expenseRollupRepository,
+                              ExpenseCategoryRepository expenseCategoryRepository,
+                              Validator validator,
+                              @Value("${expenseapp.batch.chunk-size:500}") int batchChunkSize,
+                              ObjectMapper objectMapper,
+                              @Value("${expenseapp.page.max-size:500}") int maxPageSize,
+                              ExpenseWriteBuffer expenseWriteBuffer,
+                              ExpenseDataVersions expenseDataVersions,
+                              MonthlyExpenseSumCache monthlyExpenseSumCache,
+                              @Value("${expenseapp.series.max-points:1000}") int maxSeriesPoints,
+                              AggregateRequestCoalescer aggregateRequestCoalescer) {
         this.expenseRepository = expenseRepository;
+        this.expenseRollupRepository = expenseRollupRepository;
+        this.expenseCategoryRepository = expenseCategoryRepository;
+        this.validator = validator;
+        this.batchChunkSize = batchChunkSize;
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+        this.expenseWriteBuffer = expenseWriteBuffer;
+        this.expenseDataVersions = expenseDataVersions;
+        this.monthlyExpenseSumCache = monthlyExpenseSumCache;
+        this.maxSeriesPoints = maxSeriesPoints;
+        this.aggregateRequestCoalescer = aggregateRequestCoalescer;
     }
 
     @Override
@@ -30,11 +136,88 @@ public class ExpenseServiceImpl implements ExpenseService {
         Integer responsesInserted = expenseRepository.insertExpense(expense);
         // Si el insert de BD no devolvió ningún registro modificado, entonces devuelvo un mensaje de error
         if (responsesInserted.equals(0)) {
-            System.out.println("No se insertó ningún registro");
+            log.warn("No se insertó ningún registro");
         }
         return response;
     }
 
+    // Alta para POST /api/v1/expense. Con la escritura diferida activa el gasto se encola y el future se completa
+    // cuando su lote hizo commit; si no, se inserta en el momento como createExpense
+    @Override
+    public CompletableFuture<String> submitExpense(ExpenseRequestDto expenseRequestDto) {
+        if (!expenseWriteBuffer.isEnabled()) {
+            return CompletableFuture.completedFuture(createExpense(expenseRequestDto));
+        }
+        Expense expense = mapDtoToExpense(expenseRequestDto);
+        return expenseWriteBuffer.submit(expense).thenApply(ignored -> "Se registró el gasto con éxito");
+    }
+
+    @Override
+    public BatchExpenseResponseDto createExpenses(List<ExpenseRequestDto> expenseRequestDtos) {
+        BatchExpenseItemResultDto[] results = new BatchExpenseItemResultDto[expenseRequestDtos.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+        List<Expense> validExpenses = new ArrayList<>();
+
+        // Primero validamos y mapeamos cada ítem; los inválidos quedan informados sin frenar al resto
+        for (int i = 0; i < expenseRequestDtos.size(); i++) {
+            String error = validateBatchItem(expenseRequestDtos.get(i));
+            if (error != null) {
+                results[i] = new BatchExpenseItemResultDto(i, false, error);
+                continue;
+            }
+            try {
+                validExpenses.add(mapDtoToExpense(expenseRequestDtos.get(i)));
+                validIndexes.add(i);
+            } catch (BadRequestException e) {
+                results[i] = new BatchExpenseItemResultDto(i, false, e.getMessage());
+            }
+        }
+
+        // Luego escribimos los válidos en bloques, cada uno con un único batch y una única transacción
+        for (int from = 0; from < validExpenses.size(); from += batchChunkSize) {
+            int to = Math.min(from + batchChunkSize, validExpenses.size());
+            List<Expense> chunk = validExpenses.subList(from, to);
+            try {
+                expenseRepository.insertExpenses(chunk);
+                for (int i = from; i < to; i++) {
+                    results[validIndexes.get(i)] = new BatchExpenseItemResultDto(validIndexes.get(i), true, "Gasto registrado");
+                }
+            } catch (DataAccessException e) {
+                // Si el bloque falla lo reintentamos ítem por ítem para aislar las filas con error
+                for (int i = from; i < to; i++) {
+                    results[validIndexes.get(i)] = insertBatchItem(validIndexes.get(i), validExpenses.get(i));
+                }
+            }
+        }
+
+        return new BatchExpenseResponseDto(List.of(results));
+    }
+
+    private String validateBatchItem(ExpenseRequestDto expenseRequestDto) {
+        if (expenseRequestDto == null) {
+            return "Gasto requerido";
+        }
+        Set<ConstraintViolation<ExpenseRequestDto>> violations = validator.validate(expenseRequestDto);
+        if (!violations.isEmpty()) {
+            return violations.iterator().next().getMessage();
+        }
+        if (expenseRequestDto.getCategoryDto() == null
+                || expenseRequestDto.getCategoryDto().getName() == null
+                || expenseRequestDto.getCategoryDto().getName().isBlank()) {
+            return "Categoría requerida";
+        }
+        return null;
+    }
+
+    private BatchExpenseItemResultDto insertBatchItem(int index, Expense expense) {
+        try {
+            expenseRepository.insertExpense(expense);
+            return new BatchExpenseItemResultDto(index, true, "Gasto registrado");
+        } catch (DataAccessException e) {
+            return new BatchExpenseItemResultDto(index, false, e.getMostSpecificCause().getMessage());
+        }
+    }
+
     @Override
     public String updateExpense(Long id, ExpenseRequestDto expenseRequestDto) {
         // Defino un mensaje de éxito por default
@@ -45,7 +228,7 @@ public class ExpenseServiceImpl implements ExpenseService {
         if (responsesUpdated.equals(0)) {
             throw new ResourceNotFoundExcepcion("update", "id", id);
         }
-        System.out.println("Se actualiza la presentacion id: " + id);
+        log.debug("Se actualiza la presentacion id: {}", id);
         return response;
     }
 
@@ -58,23 +241,218 @@ public class ExpenseServiceImpl implements ExpenseService {
     @Override
     public MonthlyExpenseSumResponseDto getExpenseSumByMonth(int year, int month) {
         try {
-            MonthlyExpenseSumResponseDto sum = expenseRepository.selectExpenseSumByMonth(year, month);
-            return sum;
+            // Un mes fuera de rango no tiene gastos ni entrada en la caché
+            if (month < 1 || month > 12) {
+                return expenseRepository.selectExpenseSumByMonth(year, month);
+            }
+            Double totalAmount = monthlyExpenseSumCache.get(TenantContext.getTenantId(), YearMonth.of(year, month),
+                    () -> expenseRepository.selectExpenseSumByMonth(year, month).getTotalAmount());
+            return new MonthlyExpenseSumResponseDto(year, month, totalAmount);
         } catch (Exception e) {
             // Log de la excepción
-            System.out.println("Error al obtener la suma de gastos por mes y año: " + e.getMessage());
+            log.error("Error al obtener la suma de gastos por mes y año", e);
             throw new RuntimeException("Error al obtener la suma de gastos por mes y año", e);
         }
     }
 
+    // Versión no bloqueante para GET /sum-by-month: un mes cacheado se responde en el momento y si no, los requests
+    // simultáneos por el mismo mes y versión comparten un único cálculo
+    @Override
+    public CompletableFuture<MonthlyExpenseSumResponseDto> getExpenseSumByMonthAsync(int year, int month) {
+        if (month >= 1 && month <= 12) {
+            Double cached = monthlyExpenseSumCache.getIfPresent(TenantContext.getTenantId(), YearMonth.of(year, month));
+            if (cached != null) {
+                aggregateRequestCoalescer.recordCached("sum-by-month");
+                return CompletableFuture.completedFuture(new MonthlyExpenseSumResponseDto(year, month, cached));
+            }
+        }
+        return aggregateRequestCoalescer.compute("sum-by-month", List.of(year, month), getDataVersion(year, month).tag(),
+                () -> getExpenseSumByMonth(year, month));
+    }
+
     @Override
     public Double getTotalExpenseSum() {
-        return expenseRepository.getTotalExpenseSum();
+        return Money.toAmount(expenseRepository.getTotalExpenseSum());
     }
 
     @Override
-    public Double getExpensesByCategoryName(String name) {
-        return null;
+    public CompletableFuture<Double> getTotalExpenseSumAsync() {
+        return aggregateRequestCoalescer.compute("total-sum", List.of(), getDataVersion().tag(), this::getTotalExpenseSum);
+    }
+
+    @Override
+    public Set<String> getExpenseCategoryNames() {
+        return expenseCategoryRepository.selectCategories().stream()
+            .map(ExpenseCategory::getName)
+            .collect(Collectors.toSet());
+    }
+
+    // Cantidad de gastos por categoría: las categorías salen del listado en memoria y los conteos de los acumulados
+    @Override
+    public List<ExpenseCategoryUsageResponseDto> getExpenseCategoryUsage() {
+        Map<Long, Long> counts = expenseRollupRepository.selectExpenseCountByCategory();
+        return expenseCategoryRepository.selectCategories().stream()
+            .map(category -> new ExpenseCategoryUsageResponseDto(category.getId(), category.getName(),
+                    counts.getOrDefault(category.getId(), 0L)))
+            .collect(Collectors.toList());
+    }
+
+    // Serie de totales por día, semana (de lunes a domingo) o mes entre from y to, resuelta con una sola consulta.
+    // Cada punto se identifica con el primer día de su período, así que el primero puede ser anterior a from;
+    // sólo se suman los gastos dentro del rango. Los períodos sin gastos se devuelven en cero
+    @Override
+    public ExpenseSeriesResponseDto getExpenseSeries(String from, String to, SeriesGranularity granularity, boolean groupByCategory) {
+        SeriesTotals seriesTotals = computeSeries(from, to, granularity, groupByCategory);
+        List<ExpenseSeriesDto> series = new ArrayList<>(seriesTotals.categories().size());
+        for (int s = 0; s < seriesTotals.categories().size(); s++) {
+            long[][] totals = seriesTotals.totals().get(s);
+            List<ExpenseSeriesPointDto> points = new ArrayList<>(seriesTotals.periods().size());
+            for (int i = 0; i < seriesTotals.periods().size(); i++) {
+                points.add(new ExpenseSeriesPointDto(seriesTotals.periods().get(i).format(ApiFormats.DATE_FORMATTER),
+                        Money.toAmount(totals[i][0]), totals[i][1]));
+            }
+            series.add(new ExpenseSeriesDto(seriesTotals.categories().get(s), points));
+        }
+        return new ExpenseSeriesResponseDto(granularity.name().toLowerCase(),
+                seriesTotals.from().format(ApiFormats.DATE_FORMATTER), seriesTotals.to().format(ApiFormats.DATE_FORMATTER), series);
+    }
+
+    // Misma serie que getExpenseSeries en columnas: los períodos una sola vez y por serie sólo los números
+    @Override
+    public ExpenseSeriesCompactResponseDto getExpenseSeriesCompact(String from, String to, SeriesGranularity granularity,
+                                                                   boolean groupByCategory) {
+        SeriesTotals seriesTotals = computeSeries(from, to, granularity, groupByCategory);
+        int[] periods = new int[seriesTotals.periods().size()];
+        for (int i = 0; i < periods.length; i++) {
+            periods[i] = (int) seriesTotals.periods().get(i).toEpochDay();
+        }
+        List<ExpenseSeriesCompactDto> series = new ArrayList<>(seriesTotals.categories().size());
+        for (int s = 0; s < seriesTotals.categories().size(); s++) {
+            long[][] totals = seriesTotals.totals().get(s);
+            double[] amounts = new double[periods.length];
+            long[] counts = new long[periods.length];
+            for (int i = 0; i < periods.length; i++) {
+                amounts[i] = Money.toAmount(totals[i][0]);
+                counts[i] = totals[i][1];
+            }
+            series.add(new ExpenseSeriesCompactDto(seriesTotals.categories().get(s), amounts, counts));
+        }
+        return new ExpenseSeriesCompactResponseDto(granularity.name().toLowerCase(),
+                seriesTotals.from().format(ApiFormats.DATE_FORMATTER), seriesTotals.to().format(ApiFormats.DATE_FORMATTER), periods, series);
+    }
+
+    private SeriesTotals computeSeries(String from, String to, SeriesGranularity granularity, boolean groupByCategory) {
+        LocalDate fromDate = ApiFormats.parseDate(from);
+        LocalDate toDate = ApiFormats.parseDate(to);
+        if (toDate.isBefore(fromDate)) {
+            throw new BadRequestException("La fecha to no puede ser anterior a from");
+        }
+
+        List<LocalDate> periods = new ArrayList<>();
+        for (LocalDate period = periodStart(fromDate, granularity); !period.isAfter(toDate); period = nextPeriod(period, granularity)) {
+            if (periods.size() == maxSeriesPoints) {
+                throw new BadRequestException("La serie no puede tener más de " + maxSeriesPoints + " períodos; use una granularidad mayor");
+            }
+            periods.add(period);
+        }
+
+        // Con meses completos alcanza con los acumulados mensuales; si no, se agrupa la tabla de gastos por día
+        List<ExpenseBucketSum> sums;
+        if (granularity == SeriesGranularity.MONTH
+                && fromDate.getDayOfMonth() == 1
+                && toDate.equals(toDate.with(TemporalAdjusters.lastDayOfMonth()))) {
+            sums = expenseRollupRepository.selectSumsByMonth(YearMonth.from(fromDate), YearMonth.from(toDate), groupByCategory);
+        } else {
+            sums = expenseRepository.selectExpenseSumsByDay(fromDate, toDate, groupByCategory);
+        }
+
+        // Acumulamos cada fila en su período: índice del período -> [total en centavos, cantidad], por categoría
+        Map<Long, long[][]> totalsByCategory = new HashMap<>();
+        Map<Long, String> categoryNames = new HashMap<>();
+        Map<LocalDate, Integer> periodIndexes = new HashMap<>();
+        for (int i = 0; i < periods.size(); i++) {
+            periodIndexes.put(periods.get(i), i);
+        }
+        for (ExpenseBucketSum sum : sums) {
+            categoryNames.putIfAbsent(sum.categoryId(), sum.categoryName());
+            long[][] totals = totalsByCategory.computeIfAbsent(sum.categoryId(), id -> new long[periods.size()][2]);
+            int index = periodIndexes.get(periodStart(sum.period(), granularity));
+            totals[index][0] += sum.totalCents();
+            totals[index][1] += sum.expenseCount();
+        }
+
+        List<String> categories = new ArrayList<>();
+        List<long[][]> totals = new ArrayList<>();
+        if (groupByCategory) {
+            List<Long> categoryIds = new ArrayList<>(totalsByCategory.keySet());
+            categoryIds.sort(Comparator.comparing(categoryNames::get, Comparator.nullsLast(Comparator.naturalOrder())));
+            for (Long categoryId : categoryIds) {
+                categories.add(categoryNames.get(categoryId));
+                totals.add(totalsByCategory.get(categoryId));
+            }
+        } else {
+            categories.add(null);
+            totals.add(totalsByCategory.getOrDefault(0L, new long[periods.size()][2]));
+        }
+        return new SeriesTotals(fromDate, toDate, periods, categories, totals);
+    }
+
+    private static LocalDate periodStart(LocalDate date, SeriesGranularity granularity) {
+        return switch (granularity) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    private static LocalDate nextPeriod(LocalDate period, SeriesGranularity granularity) {
+        return switch (granularity) {
+            case DAY -> period.plusDays(1);
+            case WEEK -> period.plusWeeks(1);
+            case MONTH -> period.plusMonths(1);
+        };
+    }
+
+    // Versión de todos los gastos de la cuenta: cambia con cualquier alta, modificación o baja de esa cuenta
+    @Override
+    public DataVersion getDataVersion() {
+        return expenseDataVersions.current(TenantContext.getTenantId());
+    }
+
+    // Versión de un mes de la cuenta: sólo cambia cuando una escritura toca gastos de ese mes
+    @Override
+    public DataVersion getDataVersion(int year, int month) {
+        // Un mes fuera de rango no tiene gastos; se usa la versión global para no cambiar la respuesta actual
+        if (month < 1 || month > 12) {
+            return getDataVersion();
+        }
+        return expenseDataVersions.forMonth(TenantContext.getTenantId(), YearMonth.of(year, month));
+    }
+
+    // Versión del listado de categorías de la cuenta: sólo cambia cuando se confirma una categoría nueva
+    @Override
+    public DataVersion getCategoryVersion() {
+        return expenseDataVersions.forCategories(TenantContext.getTenantId());
+    }
+
+    @Override
+    public RollupRebuildResponseDto rebuildExpenseRollup() {
+        RollupRebuildResponseDto result = expenseRollupRepository.rebuild();
+        if (result.getDriftedBucketCount() > 0) {
+            log.warn("Se corrigieron acumulados desviados: {}", result.getDriftedBuckets());
+        }
+        return result;
+    }
+
+    @Override
+    public CategoryExpenseSumResponseDto getExpenseSumByCategory(String name, String from, String to) {
+        ExpenseCategory category = expenseCategoryRepository.findByName(name);
+        if (category == null) {
+            throw new ResourceNotFoundExcepcion("categoría", "nombre", name);
+        }
+        return expenseRepository.selectExpenseSumByCategory(category,
+                from == null ? null : ApiFormats.parseDate(from),
+                to == null ? null : ApiFormats.parseDate(to));
     }
 
 
@@ -87,35 +465,202 @@ public class ExpenseServiceImpl implements ExpenseService {
 
 
     @Override
-    public List<ExpenseResponseDto> getAllExpenses() {
-        List<Expense> expenses = expenseRepository.selectExpenses();
-
-        return expenses.stream()
-            .map(this::mapExpenseToResponseDto)
+    public ExpensePageResponseDto getExpenses(ExpenseFilterRequestDto filterDto, int limit, String after) {
+        ExpenseRowPage page = loadExpensePage(filterDto, limit, after);
+        List<ExpenseResponseDto> items = page.rows().stream()
+            .map(this::mapExpenseRowToResponseDto)
             .collect(Collectors.toList());
+        return new ExpensePageResponseDto(items, page.nextCursor());
+    }
+
+    // Misma página que getExpenses en columnas, con el diccionario de categorías de la página
+    @Override
+    public ExpensePageCompactResponseDto getExpensesCompact(ExpenseFilterRequestDto filterDto, int limit, String after) {
+        ExpenseRowPage page = loadExpensePage(filterDto, limit, after);
+        return mapExpenseRowsToCompactDto(page.rows(), page.nextCursor());
+    }
+
+    private ExpenseRowPage loadExpensePage(ExpenseFilterRequestDto filterDto, int limit, String after) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new BadRequestException("El parámetro limit debe estar entre 1 y " + maxPageSize);
+        }
+
+        ExpenseFilter filter = new ExpenseFilter();
+        if (filterDto.getFrom() != null) {
+            filter.setFrom(ApiFormats.parseDate(filterDto.getFrom()));
+        }
+        if (filterDto.getTo() != null) {
+            filter.setTo(ApiFormats.parseDate(filterDto.getTo()));
+        }
+        if (filterDto.getCategory() != null) {
+            ExpenseCategory category = expenseCategoryRepository.findByName(filterDto.getCategory());
+            // Una categoría inexistente no puede tener gastos
+            if (category == null) {
+                return new ExpenseRowPage(Collections.emptyList(), null);
+            }
+            filter.setCategoryId(category.getId());
+        }
+        // Los límites se llevan al centavo hacia adentro del rango: mínimo hacia arriba y máximo hacia abajo
+        if (filterDto.getMinAmount() != null) {
+            filter.setMinAmountCents(ApiFormats.parseAmount(filterDto.getMinAmount(), RoundingMode.CEILING));
+        }
+        if (filterDto.getMaxAmount() != null) {
+            filter.setMaxAmountCents(ApiFormats.parseAmount(filterDto.getMaxAmount(), RoundingMode.FLOOR));
+        }
+        if (after != null) {
+            decodeCursor(after, filter);
+        }
+
+        // Pedimos un gasto de más para saber si existe una página siguiente
+        List<ExpenseRow> expenses = expenseRepository.selectExpensePage(filter, limit + 1);
+        String nextCursor = null;
+        if (expenses.size() > limit) {
+            expenses = expenses.subList(0, limit);
+            nextCursor = encodeCursor(expenses.get(limit - 1));
+        }
+        return new ExpenseRowPage(expenses, nextCursor);
+    }
+
+    // El cursor es opaco para el cliente: codifica la posición (date, id) del último gasto entregado
+    private String encodeCursor(ExpenseRow expense) {
+        String position = expense.date() + "|" + expense.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void decodeCursor(String cursor, ExpenseFilter filter) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf('|');
+            filter.setAfterDate(LocalDate.parse(position.substring(0, separator)));
+            filter.setAfterId(Long.parseLong(position.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("Cursor inválido: " + cursor);
+        }
+    }
+
+    // Escribe los gastos fila por fila a medida que llegan de la BD, sin armar listas intermedias,
+    // por lo que la memoria usada no depende de la cantidad de gastos
+    @Override
+    public void exportExpenses(ExpenseExportFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(writer);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(null);
+
+        if (format == ExpenseExportFormat.CSV) {
+            writer.write(CSV_HEADER);
+        }
+        try {
+            expenseRepository.streamExpenses(rs -> {
+                try {
+                    if (format == ExpenseExportFormat.CSV) {
+                        writeCsvRow(writer, rs);
+                    } else {
+                        writeNdjsonRow(generator, rs);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Normalmente el cliente cortó la descarga
+            throw e.getCause();
+        }
+        generator.flush();
+        writer.flush();
+    }
+
+    private void writeNdjsonRow(JsonGenerator generator, ResultSet rs) throws IOException, SQLException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", rs.getLong(1));
+        generator.writeNumberField("amount", Money.toAmount(rs.getLong(2)));
+        generator.writeNumberField("categoryId", rs.getLong(3));
+        generator.writeStringField("categoryName", rs.getString(4));
+        generator.writeStringField("date", rs.getObject(5, LocalDate.class).format(ApiFormats.DATE_FORMATTER));
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    private void writeCsvRow(Writer writer, ResultSet rs) throws IOException, SQLException {
+        writer.write(Long.toString(rs.getLong(1)));
+        writer.write(',');
+        writer.write(Double.toString(Money.toAmount(rs.getLong(2))));
+        writer.write(',');
+        writer.write(Long.toString(rs.getLong(3)));
+        writer.write(',');
+        writer.write(escapeCsv(rs.getString(4)));
+        writer.write(',');
+        writer.write(rs.getObject(5, LocalDate.class).format(ApiFormats.DATE_FORMATTER));
+        writer.write('\n');
+    }
+
+    private String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
     }
 
     // Método privado para mapear objetos DTO de entrada a entidad para manipular en la BD
     private Expense mapDtoToExpense(ExpenseRequestDto expenseRequestDto) {
         Expense expense = new Expense();
-        expense.setAmount(expenseRequestDto.getAmount());
+        expense.setAmountCents(ApiFormats.parseAmount(expenseRequestDto.getAmount(), RoundingMode.HALF_UP));
         expense.setCategoryName(expenseRequestDto.getCategoryDto().getName());
-        expense.setDate(expenseRequestDto.getDate());
+        expense.setDate(ApiFormats.parseDate(expenseRequestDto.getDate()));
         return expense;
     }
 
-    // Método privado para mapear una entidad que sale hacia una respuesta como objeto DTO
-    private ExpenseResponseDto mapExpenseToResponseDto(Expense expense) {
+    // Método para mapear una entidad que sale hacia una respuesta como objeto DTO.
+    // Es de paquete para poder medirlo desde los benchmarks de src/jmh
+    ExpenseResponseDto mapExpenseToResponseDto(Expense expense) {
         ExpenseResponseDto expenseResponseDto = new ExpenseResponseDto();
-        expenseResponseDto.setAmount(expense.getAmount());
+        expenseResponseDto.setAmount(Money.toAmount(expense.getAmountCents()));
 
         ExpenseCategoryResponseDto categoryDto = new ExpenseCategoryResponseDto();
-        categoryDto.setId(expense.getId());
+        categoryDto.setId(expense.getCategoryId());
         categoryDto.setName(expense.getCategoryName());
 
         expenseResponseDto.setCategoryDto(categoryDto);
-        expenseResponseDto.setDate(expense.getDate());
+        expenseResponseDto.setDate(expense.getDate().format(ApiFormats.DATE_FORMATTER));
         return expenseResponseDto;
     }
 
+    ExpenseResponseDto mapExpenseRowToResponseDto(ExpenseRow expense) {
+        // Misma forma que mapExpenseToResponseDto, armada directamente desde los campos primitivos
+        ExpenseCategoryResponseDto categoryDto = new ExpenseCategoryResponseDto(expense.categoryId(), expense.categoryName());
+        return new ExpenseResponseDto(Money.toAmount(expense.amountCents()), categoryDto, expense.date().format(ApiFormats.DATE_FORMATTER));
+    }
+
+    // Cada categoría distinta de la página entra una sola vez al diccionario, en el orden en que aparece
+    ExpensePageCompactResponseDto mapExpenseRowsToCompactDto(List<ExpenseRow> expenses, String nextCursor) {
+        Map<Long, Integer> categoryIndexes = new HashMap<>();
+        List<String> categoryNames = new ArrayList<>();
+        long[] ids = new long[expenses.size()];
+        double[] amounts = new double[expenses.size()];
+        int[] categories = new int[expenses.size()];
+        int[] dates = new int[expenses.size()];
+        for (int i = 0; i < expenses.size(); i++) {
+            ExpenseRow expense = expenses.get(i);
+            ids[i] = expense.id();
+            amounts[i] = Money.toAmount(expense.amountCents());
+            Integer categoryIndex = categoryIndexes.get(expense.categoryId());
+            if (categoryIndex == null) {
+                categoryIndex = categoryNames.size();
+                categoryIndexes.put(expense.categoryId(), categoryIndex);
+                categoryNames.add(expense.categoryName());
+            }
+            categories[i] = categoryIndex;
+            dates[i] = (int) expense.date().toEpochDay();
+        }
+        return new ExpensePageCompactResponseDto(categoryNames, ids, amounts, categories, dates, nextCursor);
+    }
+
+    private record ExpenseRowPage(List<ExpenseRow> rows, String nextCursor) {
+    }
+
+    // Totales de una serie: por cada categoría (null si no se agrupa), [total en centavos, cantidad] de cada período
+    private record SeriesTotals(LocalDate from, LocalDate to, List<LocalDate> periods, List<String> categories,
+                                List<long[][]> totals) {
+    }
+
     }
@@ -0,0 +1,163 @@
+package com.soyhenry.expenseapp.service.impl;
+
+import com.soyhenry.expenseapp.cache.MonthlyBalanceCache;
+import com.soyhenry.expenseapp.domain.ApiFormats;
+import com.soyhenry.expenseapp.domain.Income;
+import com.soyhenry.expenseapp.domain.Money;
+import com.soyhenry.expenseapp.domain.MonthlyPrefixSums;
+import com.soyhenry.expenseapp.dto.IncomeDto;
+import com.soyhenry.expenseapp.dto.response.BalanceResponseDto;
+import com.soyhenry.expenseapp.dto.response.IncomeResponseDto;
+import com.soyhenry.expenseapp.exception.BadRequestException;
+import com.soyhenry.expenseapp.exception.ResourceNotFoundExcepcion;
+import com.soyhenry.expenseapp.repository.ExpenseRepository;
+import com.soyhenry.expenseapp.repository.ExpenseRollupRepository;
+import com.soyhenry.expenseapp.repository.IncomeRepository;
+import com.soyhenry.expenseapp.repository.SpecialExpenseRepository;
+import com.soyhenry.expenseapp.service.IncomeService;
+import com.soyhenry.expenseapp.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+@Service
+public class IncomeServiceImpl implements IncomeService {
+    private static final Logger log = LoggerFactory.getLogger(IncomeServiceImpl.class);
+
+    private final IncomeRepository incomeRepository;
+    private final ExpenseRepository expenseRepository;
+    private final ExpenseRollupRepository expenseRollupRepository;
+    private final SpecialExpenseRepository specialExpenseRepository;
+    private final MonthlyBalanceCache monthlyBalanceCache;
+    private final int maxPageSize;
+
+    public IncomeServiceImpl(IncomeRepository incomeRepository,
+                             ExpenseRepository expenseRepository,
+                             ExpenseRollupRepository expenseRollupRepository,
+                             SpecialExpenseRepository specialExpenseRepository,
+                             MonthlyBalanceCache monthlyBalanceCache,
+                             @Value("${expenseapp.page.max-size:500}") int maxPageSize) {
+        this.incomeRepository = incomeRepository;
+        this.expenseRepository = expenseRepository;
+        this.expenseRollupRepository = expenseRollupRepository;
+        this.specialExpenseRepository = specialExpenseRepository;
+        this.monthlyBalanceCache = monthlyBalanceCache;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    public String createIncome(IncomeDto incomeDto) {
+        Integer responsesInserted = incomeRepository.insertIncome(mapDtoToIncome(incomeDto));
+        if (responsesInserted.equals(0)) {
+            log.warn("No se insertó ningún registro");
+        }
+        return "Se registró el ingreso con éxito";
+    }
+
+    @Override
+    public String updateIncome(Long id, IncomeDto incomeDto) {
+        Integer responsesUpdated = incomeRepository.updateIncome(id, mapDtoToIncome(incomeDto));
+        if (responsesUpdated.equals(0)) {
+            throw new ResourceNotFoundExcepcion("ingreso", "id", id);
+        }
+        log.debug("Se actualiza el ingreso id: {}", id);
+        return "Se actualizó el ingreso con éxito";
+    }
+
+    @Override
+    public boolean deleteIncome(Long id) {
+        return incomeRepository.deleteIncome(id) > 0;
+    }
+
+    @Override
+    public IncomeResponseDto getIncomeById(Long id) {
+        Income income = incomeRepository.selectIncomeById(id);
+        if (income == null) {
+            throw new ResourceNotFoundExcepcion("ingreso", "id", id);
+        }
+        return mapIncomeToResponseDto(income);
+    }
+
+    @Override
+    public List<IncomeResponseDto> getIncomes(String from, String to, int limit) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new BadRequestException("El parámetro limit debe estar entre 1 y " + maxPageSize);
+        }
+        LocalDate fromDate = ApiFormats.parseDate(from);
+        LocalDate toDate = ApiFormats.parseDate(to);
+        validateRange(fromDate, toDate);
+        return incomeRepository.selectIncomes(fromDate, toDate, limit).stream()
+                .map(this::mapIncomeToResponseDto)
+                .toList();
+    }
+
+    // Balance = ingresos - gastos entre dos fechas inclusive, en centavos hasta armar la respuesta.
+    // Los gastos incluyen los gastos especiales.
+    // Los meses completos del período salen de las sumas prefijas por mes (cacheadas por cuenta, dos restas
+    // sin importar cuántos años abarque el período); sólo los días sueltos del primer y último mes se suman
+    // por rango de fechas sobre el índice (tenant_id, date, id) de cada tabla. Los gastos especiales no tienen
+    // acumulados mensuales y, como son pocos, se suman siempre por rango de fechas
+    @Override
+    public BalanceResponseDto getBalance(String from, String to) {
+        LocalDate fromDate = ApiFormats.parseDate(from);
+        LocalDate toDate = ApiFormats.parseDate(to);
+        validateRange(fromDate, toDate);
+
+        YearMonth firstFullMonth = fromDate.getDayOfMonth() == 1 ? YearMonth.from(fromDate) : YearMonth.from(fromDate).plusMonths(1);
+        YearMonth lastFullMonth = toDate.equals(YearMonth.from(toDate).atEndOfMonth()) ? YearMonth.from(toDate) : YearMonth.from(toDate).minusMonths(1);
+
+        long totalIncome;
+        long totalExpense;
+        if (firstFullMonth.isAfter(lastFullMonth)) {
+            // El período no cubre ningún mes entero: alcanza con la suma por rango de días
+            totalIncome = incomeRepository.selectIncomeSum(fromDate, toDate);
+            totalExpense = expenseRepository.selectExpenseSum(fromDate, toDate);
+        } else {
+            String tenantId = TenantContext.getTenantId();
+            MonthlyPrefixSums prefixSums = monthlyBalanceCache.get(tenantId, () -> MonthlyPrefixSums.of(
+                    incomeRepository.selectMonthlyTotals(),
+                    expenseRollupRepository.selectMonthlyTotals()));
+            totalIncome = prefixSums.incomeBetween(firstFullMonth, lastFullMonth);
+            totalExpense = prefixSums.expenseBetween(firstFullMonth, lastFullMonth);
+
+            LocalDate fullFrom = firstFullMonth.atDay(1);
+            if (fromDate.isBefore(fullFrom)) {
+                totalIncome += incomeRepository.selectIncomeSum(fromDate, fullFrom.minusDays(1));
+                totalExpense += expenseRepository.selectExpenseSum(fromDate, fullFrom.minusDays(1));
+            }
+            LocalDate fullTo = lastFullMonth.atEndOfMonth();
+            if (toDate.isAfter(fullTo)) {
+                totalIncome += incomeRepository.selectIncomeSum(fullTo.plusDays(1), toDate);
+                totalExpense += expenseRepository.selectExpenseSum(fullTo.plusDays(1), toDate);
+            }
+        }
+        totalExpense += specialExpenseRepository.selectSpecialExpenseSum(fromDate, toDate);
+        return new BalanceResponseDto(from, to, Money.toAmount(totalIncome), Money.toAmount(totalExpense),
+                Money.toAmount(totalIncome - totalExpense));
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new BadRequestException("La fecha to no puede ser anterior a from");
+        }
+    }
+
+    private Income mapDtoToIncome(IncomeDto incomeDto) {
+        return new Income(ApiFormats.parseAmount(incomeDto.getAmount(), RoundingMode.HALF_UP),
+                incomeDto.getDescription(),
+                ApiFormats.parseDate(incomeDto.getDate()));
+    }
+
+    private IncomeResponseDto mapIncomeToResponseDto(Income income) {
+        return new IncomeResponseDto(income.getId(),
+                Money.toAmount(income.getAmountCents()),
+                income.getDescription(),
+                income.getDate().format(ApiFormats.DATE_FORMATTER));
+    }
+}
@@ -0,0 +1,117 @@
+package com.soyhenry.expenseapp.service.impl;
+
+import com.soyhenry.expenseapp.domain.ApiFormats;
+import com.soyhenry.expenseapp.domain.Money;
+import com.soyhenry.expenseapp.domain.SpecialExpense;
+import com.soyhenry.expenseapp.dto.SpecialExpenseDto;
+import com.soyhenry.expenseapp.dto.response.SpecialExpenseResponseDto;
+import com.soyhenry.expenseapp.dto.response.SpecialExpenseSearchResponseDto;
+import com.soyhenry.expenseapp.exception.BadRequestException;
+import com.soyhenry.expenseapp.exception.ResourceNotFoundExcepcion;
+import com.soyhenry.expenseapp.repository.SpecialExpenseRepository;
+import com.soyhenry.expenseapp.search.SpecialExpenseIndex;
+import com.soyhenry.expenseapp.service.SpecialExpenseService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class SpecialExpenseServiceImpl implements SpecialExpenseService {
+    private static final Logger log = LoggerFactory.getLogger(SpecialExpenseServiceImpl.class);
+
+    private final SpecialExpenseRepository specialExpenseRepository;
+    private final SpecialExpenseIndex specialExpenseIndex;
+    private final int maxPageSize;
+
+    public SpecialExpenseServiceImpl(SpecialExpenseRepository specialExpenseRepository,
+                                     SpecialExpenseIndex specialExpenseIndex,
+                                     @Value("${expenseapp.page.max-size:500}") int maxPageSize) {
+        this.specialExpenseRepository = specialExpenseRepository;
+        this.specialExpenseIndex = specialExpenseIndex;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    public Long createSpecialExpense(SpecialExpenseDto specialExpenseDto) {
+        return specialExpenseRepository.insertSpecialExpense(mapDtoToSpecialExpense(specialExpenseDto));
+    }
+
+    @Override
+    public String updateSpecialExpense(Long id, SpecialExpenseDto specialExpenseDto) {
+        Integer responsesUpdated = specialExpenseRepository.updateSpecialExpense(id, mapDtoToSpecialExpense(specialExpenseDto));
+        if (responsesUpdated.equals(0)) {
+            throw new ResourceNotFoundExcepcion("gasto especial", "id", id);
+        }
+        log.debug("Se actualiza el gasto especial id: {}", id);
+        return "Se actualizó el gasto especial con éxito";
+    }
+
+    @Override
+    public boolean deleteSpecialExpense(Long id) {
+        return specialExpenseRepository.deleteSpecialExpense(id) > 0;
+    }
+
+    @Override
+    public SpecialExpenseResponseDto getSpecialExpenseById(Long id) {
+        SpecialExpense specialExpense = specialExpenseRepository.selectSpecialExpenseById(id);
+        if (specialExpense == null) {
+            throw new ResourceNotFoundExcepcion("gasto especial", "id", id);
+        }
+        return mapSpecialExpenseToResponseDto(specialExpense);
+    }
+
+    // Los ids salen del índice invertido en memoria y sólo la página pedida se lee de la BD por clave primaria
+    @Override
+    public SpecialExpenseSearchResponseDto searchSpecialExpenses(String query, int limit) {
+        if (limit < 1 || limit > maxPageSize) {
+            throw new BadRequestException("El parámetro limit debe estar entre 1 y " + maxPageSize);
+        }
+        List<String> terms = SpecialExpenseIndex.tokenize(query);
+        if (terms.isEmpty()) {
+            throw new BadRequestException("La búsqueda necesita al menos un término de 2 o más letras o números");
+        }
+        SpecialExpenseIndex.SearchHits hits = specialExpenseIndex.search(terms, limit);
+
+        Map<Long, SpecialExpense> byId = new HashMap<>();
+        for (SpecialExpense specialExpense : specialExpenseRepository.selectSpecialExpensesByIds(hits.ids())) {
+            byId.put(specialExpense.getId(), specialExpense);
+        }
+        // Se respeta el orden del índice; un id eliminado entre la búsqueda y la lectura simplemente no aparece
+        List<SpecialExpenseResponseDto> items = new ArrayList<>(hits.ids().size());
+        for (Long id : hits.ids()) {
+            SpecialExpense specialExpense = byId.get(id);
+            if (specialExpense != null) {
+                items.add(mapSpecialExpenseToResponseDto(specialExpense));
+            }
+        }
+        return new SpecialExpenseSearchResponseDto(query, hits.totalMatches(), items);
+    }
+
+    private SpecialExpense mapDtoToSpecialExpense(SpecialExpenseDto specialExpenseDto) {
+        if (specialExpenseDto.getCategoryDto() == null || specialExpenseDto.getCategoryDto().getName() == null
+                || specialExpenseDto.getCategoryDto().getName().isBlank()) {
+            throw new BadRequestException("Categoría requerida");
+        }
+        return new SpecialExpense(ApiFormats.parseAmount(specialExpenseDto.getAmount(), RoundingMode.HALF_UP),
+                null,
+                specialExpenseDto.getCategoryDto().getName(),
+                ApiFormats.parseDate(specialExpenseDto.getDate()),
+                specialExpenseDto.getReason());
+    }
+
+    private SpecialExpenseResponseDto mapSpecialExpenseToResponseDto(SpecialExpense specialExpense) {
+        return new SpecialExpenseResponseDto(specialExpense.getId(),
+                Money.toAmount(specialExpense.getAmountCents()),
+                specialExpense.getCategoryName(),
+                specialExpense.getDate().format(ApiFormats.DATE_FORMATTER),
+                specialExpense.getReason());
+    }
+}
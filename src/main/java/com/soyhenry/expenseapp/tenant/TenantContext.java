@@ -0,0 +1,27 @@
+package com.soyhenry.expenseapp.tenant;
+
+// Cuenta (tenant) dueña de los datos sobre los que opera el hilo actual. La fija TenantInterceptor al
+// comienzo de cada request y la leen los repositorios para acotar cada consulta a esa cuenta.
+// Un hilo sin cuenta asignada opera sobre la cuenta por defecto; el trabajo que sale del hilo del request
+// (escritura diferida, exportación) guarda la cuenta antes y la vuelve a fijar en el otro hilo
+public final class TenantContext {
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String getTenantId() {
+        String tenantId = CURRENT.get();
+        return tenantId != null ? tenantId : DEFAULT_TENANT;
+    }
+
+    public static void setTenantId(String tenantId) {
+        CURRENT.set(tenantId);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,52 @@
+package com.soyhenry.expenseapp.tenant;
+
+import com.soyhenry.expenseapp.exception.BadRequestException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.regex.Pattern;
+
+// Toma la cuenta del header X-Tenant-Id; sin header el request opera sobre la cuenta por defecto.
+// Un identificador inválido se rechaza con 400 antes de llegar al controller.
+// El header no está autenticado: cualquier cliente que lo envíe opera sobre esa cuenta (ver README, CUENTAS)
+@Component
+public class TenantInterceptor implements AsyncHandlerInterceptor {
+    public static final String TENANT_HEADER = "X-Tenant-Id";
+
+    private static final Pattern TENANT_ID_PATTERN = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // La respuesta (y sus ETag/304) depende de la cuenta: una caché compartida no debe servirla a otra.
+        // En el redespacho de un endpoint asincrónico la respuesta ya lo tiene desde el primer despacho
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            response.addHeader(HttpHeaders.VARY, TENANT_HEADER);
+        }
+        String tenantId = request.getHeader(TENANT_HEADER);
+        if (tenantId == null) {
+            TenantContext.setTenantId(TenantContext.DEFAULT_TENANT);
+            return true;
+        }
+        if (!TENANT_ID_PATTERN.matcher(tenantId).matches()) {
+            throw new BadRequestException("Header " + TENANT_HEADER + " inválido: sólo letras, números, '-' y '_', hasta 64 caracteres");
+        }
+        TenantContext.setTenantId(tenantId);
+        return true;
+    }
+
+    // Los hilos de Tomcat se reutilizan, así que la cuenta se limpia al terminar el request
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        TenantContext.clear();
+    }
+
+    // En los endpoints asincrónicos el hilo del request se libera antes de que termine la respuesta
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        TenantContext.clear();
+    }
+}
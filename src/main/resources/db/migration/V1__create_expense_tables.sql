@@ -0,0 +1,18 @@
+CREATE TABLE ExpenseCategory (
+    id LONG PRIMARY KEY AUTO_INCREMENT NOT NULL,
+    name VARCHAR(50) NOT NULL,
+    CONSTRAINT uk_expense_category_name UNIQUE (name)
+);
+
+CREATE TABLE Expense (
+    id LONG PRIMARY KEY AUTO_INCREMENT NOT NULL,
+    amount DOUBLE NOT NULL,
+    category_id LONG NOT NULL,
+    category_name VARCHAR(30) NOT NULL,
+    date DATE NOT NULL,
+    FOREIGN KEY (category_id) REFERENCES ExpenseCategory(id)
+);
+
+-- Indices para el listado paginado por (date, id) y sus filtros por fecha y categoría
+CREATE INDEX idx_expense_date_id ON Expense(date, id);
+CREATE INDEX idx_expense_category_date_id ON Expense(category_id, date, id);
@@ -0,0 +1,10 @@
+-- Acumulados por (año, mes, categoría) que se mantienen en cada escritura sobre Expense
+CREATE TABLE ExpenseRollup (
+    expense_year INT NOT NULL,
+    expense_month INT NOT NULL,
+    category_id LONG NOT NULL,
+    total_amount DOUBLE NOT NULL,
+    expense_count LONG NOT NULL,
+    PRIMARY KEY (expense_year, expense_month, category_id),
+    FOREIGN KEY (category_id) REFERENCES ExpenseCategory(id)
+);
@@ -0,0 +1,20 @@
+-- Cada cuenta (tenant) tiene sus propias categorías, gastos y acumulados.
+-- Los datos existentes quedan en la cuenta por defecto
+ALTER TABLE ExpenseCategory ADD COLUMN tenant_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+ALTER TABLE ExpenseCategory DROP CONSTRAINT uk_expense_category_name;
+ALTER TABLE ExpenseCategory ADD CONSTRAINT uk_expense_category_tenant_name UNIQUE (tenant_id, name);
+
+ALTER TABLE Expense ADD COLUMN tenant_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+
+-- Todas las consultas filtran por cuenta, así que los índices empiezan por tenant_id:
+-- cada cuenta recorre sólo su tramo del índice, sin importar el volumen de las demás
+DROP INDEX idx_expense_date_id;
+DROP INDEX idx_expense_category_date_id;
+CREATE INDEX idx_expense_tenant_date_id ON Expense(tenant_id, date, id);
+CREATE INDEX idx_expense_tenant_category_date_id ON Expense(tenant_id, category_id, date, id);
+-- La exportación recorre los gastos de la cuenta en orden de id
+CREATE INDEX idx_expense_tenant_id ON Expense(tenant_id, id);
+
+ALTER TABLE ExpenseRollup ADD COLUMN tenant_id VARCHAR(64) DEFAULT 'default' NOT NULL;
+ALTER TABLE ExpenseRollup DROP PRIMARY KEY;
+ALTER TABLE ExpenseRollup ADD PRIMARY KEY (tenant_id, expense_year, expense_month, category_id);
@@ -0,0 +1,20 @@
+CREATE TABLE Income (
+    id LONG PRIMARY KEY AUTO_INCREMENT NOT NULL,
+    tenant_id VARCHAR(64) NOT NULL,
+    amount DOUBLE NOT NULL,
+    description VARCHAR(100),
+    date DATE NOT NULL
+);
+
+-- Igual que en Expense: el listado por fecha y las sumas por rango recorren sólo el tramo de la cuenta
+CREATE INDEX idx_income_tenant_date_id ON Income(tenant_id, date, id);
+
+-- Acumulados por (cuenta, año, mes) que se mantienen en cada escritura sobre Income
+CREATE TABLE IncomeRollup (
+    tenant_id VARCHAR(64) NOT NULL,
+    income_year INT NOT NULL,
+    income_month INT NOT NULL,
+    total_amount DOUBLE NOT NULL,
+    income_count LONG NOT NULL,
+    PRIMARY KEY (tenant_id, income_year, income_month)
+);
@@ -0,0 +1,15 @@
+-- Gastos especiales: además de los datos de un gasto guardan el motivo, sobre el que se busca por texto.
+-- La búsqueda usa un índice invertido en memoria (SpecialExpenseIndex) que se arma desde esta tabla
+CREATE TABLE SpecialExpense (
+    id LONG PRIMARY KEY AUTO_INCREMENT NOT NULL,
+    tenant_id VARCHAR(64) NOT NULL,
+    amount DOUBLE NOT NULL,
+    category_id LONG NOT NULL,
+    category_name VARCHAR(50) NOT NULL,
+    date DATE NOT NULL,
+    reason VARCHAR(255) NOT NULL,
+    FOREIGN KEY (category_id) REFERENCES ExpenseCategory(id)
+);
+
+-- Carga del índice de la cuenta y lectura por id de los resultados de la búsqueda
+CREATE INDEX idx_special_expense_tenant_id ON SpecialExpense(tenant_id, id);
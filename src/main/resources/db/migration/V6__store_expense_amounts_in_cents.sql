@@ -0,0 +1,14 @@
+-- Los montos de los gastos y sus acumulados pasan a centavos en BIGINT: las sumas en la BD y en memoria son exactas.
+-- Los montos existentes se redondean al centavo y los acumulados se recalculan desde esos centavos
+ALTER TABLE Expense ADD COLUMN amount_cents BIGINT;
+UPDATE Expense SET amount_cents = CAST(ROUND(amount * 100) AS BIGINT);
+ALTER TABLE Expense ALTER COLUMN amount_cents SET NOT NULL;
+ALTER TABLE Expense DROP COLUMN amount;
+
+ALTER TABLE ExpenseRollup ADD COLUMN total_cents BIGINT;
+UPDATE ExpenseRollup r SET total_cents = (
+    SELECT COALESCE(SUM(e.amount_cents), 0) FROM Expense e
+    WHERE e.tenant_id = r.tenant_id AND YEAR(e.date) = r.expense_year AND MONTH(e.date) = r.expense_month
+    AND e.category_id = r.category_id);
+ALTER TABLE ExpenseRollup ALTER COLUMN total_cents SET NOT NULL;
+ALTER TABLE ExpenseRollup DROP COLUMN total_amount;
@@ -0,0 +1,18 @@
+-- Igual que V6 para los ingresos, sus acumulados y los gastos especiales: montos en centavos en BIGINT,
+-- así el balance resta sumas exactas. Los montos existentes se redondean al centavo
+ALTER TABLE Income ADD COLUMN amount_cents BIGINT;
+UPDATE Income SET amount_cents = CAST(ROUND(amount * 100) AS BIGINT);
+ALTER TABLE Income ALTER COLUMN amount_cents SET NOT NULL;
+ALTER TABLE Income DROP COLUMN amount;
+
+ALTER TABLE IncomeRollup ADD COLUMN total_cents BIGINT;
+UPDATE IncomeRollup r SET total_cents = (
+    SELECT COALESCE(SUM(i.amount_cents), 0) FROM Income i
+    WHERE i.tenant_id = r.tenant_id AND YEAR(i.date) = r.income_year AND MONTH(i.date) = r.income_month);
+ALTER TABLE IncomeRollup ALTER COLUMN total_cents SET NOT NULL;
+ALTER TABLE IncomeRollup DROP COLUMN total_amount;
+
+ALTER TABLE SpecialExpense ADD COLUMN amount_cents BIGINT;
+UPDATE SpecialExpense SET amount_cents = CAST(ROUND(amount * 100) AS BIGINT);
+ALTER TABLE SpecialExpense ALTER COLUMN amount_cents SET NOT NULL;
+ALTER TABLE SpecialExpense DROP COLUMN amount;
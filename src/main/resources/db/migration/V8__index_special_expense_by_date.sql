@@ -0,0 +1,2 @@
+-- Suma por rango de fechas de los gastos especiales de la cuenta para el balance
+CREATE INDEX idx_special_expense_tenant_date_id ON SpecialExpense(tenant_id, date, id);
@@ -1,6 +1,9 @@
 package com.soyhenry.expenseapp;
 
 import com.soyhenry.expenseapp.controller.ExpenseController;
+import com.soyhenry.expenseapp.domain.DataVersion;
+import com.soyhenry.expenseapp.dto.request.ExpenseFilterRequestDto;
+import com.soyhenry.expenseapp.dto.response.ExpensePageResponseDto;
 import com.soyhenry.expenseapp.dto.response.ExpenseResponseDto;
 import com.soyhenry.expenseapp.dto.response.MonthlyExpenseSumResponseDto;
 import com.soyhenry.expenseapp.repository.ExpenseRepository;
@@ -12,8 +15,12 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -21,6 +28,7 @@ import static org.hamcrest.Matchers.closeTo;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -45,15 +53,18 @@ class ExpenseAppApplicationTests {
 
 		);
 
+		ExpenseFilterRequestDto filter = new ExpenseFilterRequestDto();
+		ExpensePageResponseDto mockPage = new ExpensePageResponseDto(mockResponses, null);
+
 		// Configurar el comportamiento esperado del servicio
-		when(expenseService.getAllExpenses()).thenReturn(mockResponses);
+		when(expenseService.getExpenses(filter, 50, null)).thenReturn(mockPage);
 
 		// Llamar al método bajo prueba
-		ResponseEntity<List<ExpenseResponseDto>> responseEntity = expenseController.getExpenses();
+		ResponseEntity<ExpensePageResponseDto> responseEntity = expenseController.getExpenses(filter, 50, null);
 
 		// Verificar el resultado
 		assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
-		assertEquals(mockResponses, responseEntity.getBody());
+		assertEquals(mockResponses, responseEntity.getBody().getItems());
 	}
 	@Test
 	void testGetTotalExpenseSum() {
@@ -61,10 +72,11 @@ class ExpenseAppApplicationTests {
 		Double mockTotalSum = 150.0;
 
 
-		when(expenseService.getTotalExpenseSum()).thenReturn(mockTotalSum);
+		when(expenseService.getTotalExpenseSumAsync()).thenReturn(CompletableFuture.completedFuture(mockTotalSum));
+		when(expenseService.getDataVersion()).thenReturn(new DataVersion("v1", 0));
 
 
-		ResponseEntity<Double> responseEntity = expenseController.getTotalExpenseSum();
+		ResponseEntity<Double> responseEntity = expenseController.getTotalExpenseSum(getRequest(null)).join();
 
 
 		assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
@@ -80,12 +92,33 @@ class ExpenseAppApplicationTests {
 
 		// Configurar el comportamiento esperado del servicio
 		when(expenseService.getExpenseById(expenseId)).thenReturn(mockExpenseResponse);
+		when(expenseService.getDataVersion()).thenReturn(new DataVersion("v1", 0));
 
 		// Llamar al método bajo prueba
-		ResponseEntity<ExpenseResponseDto> responseEntity = expenseController.getExpenseById(expenseId);
+		ResponseEntity<ExpenseResponseDto> responseEntity = expenseController.getExpenseById(expenseId, getRequest(null));
 
 
 		assertEquals(HttpStatus.OK, responseEntity.getStatusCode());
 		assertEquals(mockExpenseResponse, responseEntity.getBody());
 	}
+	@Test
+	void testGetTotalExpenseSumNotModified() {
+		// El cliente ya tiene la versión vigente: se responde 304 sin calcular la suma
+		when(expenseService.getDataVersion()).thenReturn(new DataVersion("v1", 0));
+		ServletWebRequest webRequest = getRequest("\"v1\"");
+
+		ResponseEntity<Double> responseEntity = expenseController.getTotalExpenseSum(webRequest).join();
+
+		assertEquals(HttpStatus.NOT_MODIFIED, responseEntity.getStatusCode());
+		assertEquals(HttpStatus.NOT_MODIFIED.value(), webRequest.getResponse().getStatus());
+		verify(expenseService, Mockito.never()).getTotalExpenseSumAsync();
+	}
+
+	private ServletWebRequest getRequest(String ifNoneMatch) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/expense");
+		if (ifNoneMatch != null) {
+			request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		}
+		return new ServletWebRequest(request, new MockHttpServletResponse());
+	}
 }
\ No newline at end of file
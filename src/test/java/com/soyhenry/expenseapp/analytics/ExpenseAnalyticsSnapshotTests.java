@@ -0,0 +1,64 @@
+package com.soyhenry.expenseapp.analytics;
+
+import com.soyhenry.expenseapp.domain.Expense;
+import com.soyhenry.expenseapp.domain.ExpenseBucketSum;
+import com.soyhenry.expenseapp.exception.DAOException;
+import com.soyhenry.expenseapp.repository.ExpenseRepository;
+import com.soyhenry.expenseapp.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Con la copia analítica activa, las escrituras confirmadas se reflejan en las sumas en memoria.
+// No es transaccional (la copia se actualiza en el commit) y usa una cuenta propia
+@SpringBootTest(properties = "expenseapp.analytics.enabled=true")
+class ExpenseAnalyticsSnapshotTests {
+	private static final String TENANT = "analytics-tests";
+	private static final LocalDate FROM = LocalDate.of(2021, 1, 1);
+	private static final LocalDate TO = LocalDate.of(2021, 12, 31);
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@AfterEach
+	void clearTenant() {
+		TenantContext.clear();
+	}
+
+	@Test
+	void testSnapshotMatchesTheDatabaseAfterWrites() throws DAOException {
+		TenantContext.setTenantId(TENANT);
+		for (int i = 0; i < 120; i++) {
+			expenseRepository.insertExpense(new Expense(i * 100L + 50, null, i % 2 == 0 ? "analitica-a" : "analitica-b", FROM.plusDays(i * 3L)));
+		}
+		expenseRepository.insertExpenses(List.of(
+				new Expense(700, null, "analitica-a", FROM.plusDays(5)),
+				new Expense(900, null, "analitica-c", FROM.plusDays(5))));
+		List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM Expense WHERE tenant_id = ? ORDER BY id", Long.class, TENANT);
+		expenseRepository.updateExpense(ids.get(0), new Expense(9900, null, "analitica-c", FROM.plusDays(40)));
+		expenseRepository.deleteExpense(ids.get(1));
+
+		// Sin transacción activa las lecturas salen de la copia; se comparan con la misma consulta en la BD
+		assertEquals(sumsFromDatabase(), expenseRepository.selectExpenseSumsByDay(FROM, TO, true));
+		Long total = jdbcTemplate.queryForObject("SELECT SUM(amount_cents) FROM Expense WHERE tenant_id = ?", Long.class, TENANT);
+		assertEquals(total, expenseRepository.selectExpenseSum(FROM, TO));
+	}
+
+	private List<ExpenseBucketSum> sumsFromDatabase() {
+		return jdbcTemplate.query("SELECT date, category_id, category_name, SUM(amount_cents), COUNT(*) FROM Expense WHERE tenant_id = ? " +
+						"GROUP BY date, category_id, category_name ORDER BY date, category_id",
+				(rs, rowNum) -> new ExpenseBucketSum(rs.getObject(1, LocalDate.class), rs.getLong(2), rs.getString(3),
+						rs.getLong(4), rs.getLong(5)),
+				TENANT);
+	}
+}
@@ -0,0 +1,55 @@
+package com.soyhenry.expenseapp.analytics;
+
+import com.soyhenry.expenseapp.domain.Expense;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExpenseColumnAggregatorTests {
+	private static final LocalDate DAY = LocalDate.of(2022, 1, 1);
+
+	@Test
+	void testParallelAggregatesMatchSequentialOnes() {
+		ExpenseColumns columns = new ExpenseColumns();
+		List<Expense> expenses = new ArrayList<>();
+		for (int i = 0; i < 50_000; i++) {
+			expenses.add(new Expense(i % 997 * 100L + 25, (long) (i % 7), "categoria-" + i % 7, DAY.plusDays(i % 400)));
+		}
+		columns.apply(expenses, expenses.subList(0, 100));
+		ExpenseColumns.View view = columns.view();
+		int from = (int) DAY.toEpochDay() + 10;
+		int to = from + 300;
+
+		// Tramos chicos para que la vista se reparta entre los cuatro hilos
+		try (ExpenseColumnAggregator aggregator = new ExpenseColumnAggregator(4, 1_000)) {
+			assertEquals(view.sum(from, to), aggregator.sum(view, from, to));
+			assertArrayEquals(view.sumByCategory(3L, from, to), aggregator.sumByCategory(view, 3L, from, to));
+			assertEquals(view.sumsByDay(from, to, true), aggregator.sumsByDay(view, from, to, true));
+			assertEquals(view.sumsByDay(from, to, false), aggregator.sumsByDay(view, from, to, false));
+		}
+	}
+
+	@Test
+	void testCentsStayExactNextToLargeAmounts() {
+		ExpenseColumns columns = new ExpenseColumns();
+		List<Expense> expenses = new ArrayList<>();
+		expenses.add(new Expense(100_000_000_000_000_000L, 1L, "inmueble", DAY));
+		for (int i = 0; i < 10_000; i++) {
+			expenses.add(new Expense(1, 2L, "cafe", DAY));
+		}
+		expenses.add(new Expense(-100_000_000_000_000_000L, 1L, "inmueble", DAY));
+		columns.apply(expenses, List.of());
+		int day = (int) DAY.toEpochDay();
+
+		// Sumando doubles los centavos quedarían por debajo de la precisión de 1e15
+		try (ExpenseColumnAggregator aggregator = new ExpenseColumnAggregator(4, 1_000)) {
+			assertEquals(10_000L, aggregator.sum(columns.view(), day, day));
+		}
+		assertEquals(10_000L, columns.view().sum(day, day));
+	}
+}
@@ -0,0 +1,61 @@
+package com.soyhenry.expenseapp.analytics;
+
+import com.soyhenry.expenseapp.domain.Expense;
+import com.soyhenry.expenseapp.domain.ExpenseBucketSum;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExpenseColumnsTests {
+	private static final LocalDate DAY = LocalDate.of(2020, 3, 10);
+
+	@Test
+	void testSumsFollowAddsAndRemoves() {
+		ExpenseColumns columns = new ExpenseColumns();
+		Expense food = new Expense(1000, 1L, "comida", DAY);
+		Expense rent = new Expense(50000, 2L, "alquiler", DAY);
+		columns.apply(List.of(food, new Expense(500, 1L, "comida", DAY.plusDays(1)), rent), List.of());
+		// Una actualización quita la versión anterior y agrega la nueva
+		columns.apply(List.of(new Expense(1200, 1L, "comida", DAY)), List.of(food));
+
+		ExpenseColumns.View view = columns.view();
+		int from = (int) DAY.toEpochDay();
+		assertEquals(51700L, view.sum(from, from + 1));
+		assertEquals(51200L, view.sum(from, from));
+		assertEquals(1700L, view.sumByCategory(1L, from, from + 1)[0]);
+		assertEquals(2L, view.sumByCategory(1L, from, from + 1)[1]);
+		assertEquals(List.of(
+				new ExpenseBucketSum(DAY, 1L, "comida", 1200, 1),
+				new ExpenseBucketSum(DAY, 2L, "alquiler", 50000, 1),
+				new ExpenseBucketSum(DAY.plusDays(1), 1L, "comida", 500, 1)), view.sumsByDay(from, from + 1, true));
+		assertEquals(List.of(
+				new ExpenseBucketSum(DAY, 0, null, 51200, 2),
+				new ExpenseBucketSum(DAY.plusDays(1), 0, null, 500, 1)), view.sumsByDay(from, from + 1, false));
+	}
+
+	@Test
+	void testCompactionCancelsRemovedRowsWithoutChangingSums() {
+		ExpenseColumns columns = new ExpenseColumns();
+		List<Expense> expenses = new ArrayList<>();
+		for (int i = 0; i < 30_000; i++) {
+			expenses.add(new Expense(i % 100 * 100L, (long) (i % 3), "categoria-" + i % 3, DAY.plusDays(i % 30)));
+		}
+		columns.apply(expenses, List.of());
+		ExpenseColumns.View before = columns.view();
+
+		// Quitamos la mitad: al superar el umbral las bajas se cancelan contra las altas
+		columns.apply(List.of(), expenses.subList(0, 15_000));
+		ExpenseColumns.View after = columns.view();
+
+		int from = (int) DAY.toEpochDay();
+		assertEquals(15_000, after.rows());
+		assertEquals(30_000, before.rows());
+		long expected = expenses.subList(15_000, 30_000).stream().mapToLong(Expense::getAmountCents).sum();
+		assertEquals(expected, after.sum(from, from + 29));
+		assertEquals(15_000L, after.sumsByDay(from, from + 29, false).stream().mapToLong(ExpenseBucketSum::expenseCount).sum());
+	}
+}
@@ -0,0 +1,107 @@
+package com.soyhenry.expenseapp.buffer;
+
+import com.soyhenry.expenseapp.domain.Expense;
+import com.soyhenry.expenseapp.exception.ServiceUnavailableException;
+import com.soyhenry.expenseapp.repository.ExpenseRepository;
+import com.soyhenry.expenseapp.repository.ExpenseRollupRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+
+// El buffer escribe desde su propio hilo y confirma cada lote, así que los tests no son transaccionales
+// y usan años propios para no cruzarse con el resto
+@SpringBootTest
+class ExpenseWriteBufferTests {
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private ExpenseRollupRepository expenseRollupRepository;
+
+	@Test
+	void testConcurrentSubmitsAreWrittenInBatches() throws Exception {
+		ExpenseWriteBuffer buffer = new ExpenseWriteBuffer(expenseRepository, true, 1000, 100, 20, 1000);
+		buffer.start();
+
+		List<CompletableFuture<Void>> futures = new ArrayList<>();
+		for (int i = 0; i < 250; i++) {
+			futures.add(buffer.submit(new Expense(200, null, "write-behind", LocalDate.of(1991, 4, 1 + i % 28))));
+		}
+		CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+		buffer.stop();
+
+		assertEquals(50000L, expenseRollupRepository.selectSumByMonth(1991, 4));
+	}
+
+	@Test
+	void testStopFlushesPendingExpenses() throws Exception {
+		// Con un intervalo largo nada se escribe hasta detener el buffer
+		ExpenseWriteBuffer buffer = new ExpenseWriteBuffer(expenseRepository, true, 1000, 100, 60_000, 1000);
+		buffer.start();
+
+		CompletableFuture<Void> future = buffer.submit(new Expense(700, null, "write-behind", LocalDate.of(1990, 6, 1)));
+		buffer.stop();
+
+		future.get(1, TimeUnit.SECONDS);
+		assertEquals(700L, expenseRollupRepository.selectSumByMonth(1990, 6));
+		assertThrows(ServiceUnavailableException.class,
+				() -> buffer.submit(new Expense(100, null, "write-behind", LocalDate.of(1990, 6, 2))));
+	}
+
+	@Test
+	void testFullQueueRejectsSubmit() throws Exception {
+		ExpenseWriteBuffer buffer = new ExpenseWriteBuffer(expenseRepository, true, 1, 100, 60_000, 10);
+		buffer.start();
+
+		buffer.submit(new Expense(300, null, "write-behind", LocalDate.of(1989, 3, 1)));
+		assertThrows(ServiceUnavailableException.class,
+				() -> buffer.submit(new Expense(400, null, "write-behind", LocalDate.of(1989, 3, 2))));
+		buffer.stop();
+
+		assertEquals(300L, expenseRollupRepository.selectSumByMonth(1989, 3));
+	}
+
+	@Test
+	void testBatchBeingWrittenKeepsItsSlots() throws Exception {
+		// El repositorio retiene el lote hasta que el test lo libera
+		ExpenseRepository slowRepository = Mockito.mock(ExpenseRepository.class);
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			writing.countDown();
+			release.await(10, TimeUnit.SECONDS);
+			return 2;
+		}).when(slowRepository).insertExpenses(anyList());
+
+		ExpenseWriteBuffer buffer = new ExpenseWriteBuffer(slowRepository, true, 2, 2, 60_000, 500);
+		buffer.start();
+		CompletableFuture<Void> first = buffer.submit(new Expense(100, null, "write-behind", LocalDate.of(1988, 5, 1)));
+		CompletableFuture<Void> second = buffer.submit(new Expense(100, null, "write-behind", LocalDate.of(1988, 5, 2)));
+		assertTrue(writing.await(10, TimeUnit.SECONDS));
+
+		// La cola está vacía pero el lote en curso sigue ocupando la capacidad
+		assertThrows(ServiceUnavailableException.class,
+				() -> buffer.submit(new Expense(100, null, "write-behind", LocalDate.of(1988, 5, 3))));
+
+		release.countDown();
+		CompletableFuture.allOf(first, second).get(10, TimeUnit.SECONDS);
+		// Los lugares vuelven al terminar el lote (la espera de offerTimeout cubre el instante entre el commit y la devolución)
+		buffer.submit(new Expense(100, null, "write-behind", LocalDate.of(1988, 5, 4)));
+		buffer.stop();
+	}
+}
@@ -0,0 +1,79 @@
+package com.soyhenry.expenseapp.cache;
+
+import com.soyhenry.expenseapp.tenant.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AggregateRequestCoalescerTests {
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final AggregateRequestCoalescer coalescer = new AggregateRequestCoalescer(new SimpleAsyncTaskExecutor(), meterRegistry);
+
+	@AfterEach
+	void clearTenant() {
+		TenantContext.clear();
+	}
+
+	@Test
+	void testConcurrentIdenticalRequestsShareOneComputation() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger computations = new AtomicInteger();
+		List<CompletableFuture<String>> futures = new ArrayList<>();
+		TenantContext.setTenantId("coalescer-a");
+
+		// Mientras el primer cálculo está bloqueado, los demás requests de la misma clave se suman a él
+		for (int i = 0; i < 200; i++) {
+			futures.add(coalescer.compute("total-sum", List.of(), "v1", () -> {
+				computations.incrementAndGet();
+				await(release);
+				return TenantContext.getTenantId();
+			}));
+		}
+		// Otra versión u otra cuenta no comparten el cálculo
+		CompletableFuture<String> newerVersion = coalescer.compute("total-sum", List.of(), "v2", () -> "v2");
+		TenantContext.setTenantId("coalescer-b");
+		CompletableFuture<String> otherTenant = coalescer.compute("total-sum", List.of(), "v1", TenantContext::getTenantId);
+		release.countDown();
+
+		for (CompletableFuture<String> future : futures) {
+			assertEquals("coalescer-a", future.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, computations.get());
+		assertEquals("v2", newerVersion.get(5, TimeUnit.SECONDS));
+		assertEquals("coalescer-b", otherTenant.get(5, TimeUnit.SECONDS));
+		assertEquals(199.0, meterRegistry.counter("expense.aggregate.requests", "aggregate", "total-sum", "outcome", "coalesced").count());
+	}
+
+	@Test
+	void testFailureIsSharedAndNotKept() throws Exception {
+		CompletableFuture<Double> failed = coalescer.compute("sum-by-month", List.of(1990, 1), "v1", () -> {
+			throw new IllegalStateException("sin conexión");
+		});
+		ExecutionException exception = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+		assertInstanceOf(IllegalStateException.class, exception.getCause());
+
+		// Terminado el cálculo fallido, el próximo request calcula de nuevo
+		assertEquals(1.0, coalescer.compute("sum-by-month", List.of(1990, 1), "v1", () -> 1.0).get(5, TimeUnit.SECONDS));
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
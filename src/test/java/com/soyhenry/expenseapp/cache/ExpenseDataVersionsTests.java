@@ -0,0 +1,44 @@
+package com.soyhenry.expenseapp.cache;
+
+import com.soyhenry.expenseapp.event.ExpenseChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ExpenseDataVersionsTests {
+	private static final String TENANT = "versions-tests";
+	private static final YearMonth MONTH = YearMonth.of(2020, 5);
+
+	@Test
+	void testMonthlySumIsInvalidatedBeforeTheVersionAdvances() {
+		AtomicReference<ExpenseDataVersions> versions = new AtomicReference<>();
+		List<String> tagsSeenWhileInvalidating = new ArrayList<>();
+		MonthlyExpenseSumCache cache = new MonthlyExpenseSumCache(100, Duration.ofHours(1), new SimpleMeterRegistry()) {
+			@Override
+			public void invalidate(ExpenseChangedEvent event) {
+				// Un request que lea justo ahora todavía recibe el ETag anterior, así que no puede fijar la suma vieja al nuevo
+				tagsSeenWhileInvalidating.add(versions.get().forMonth(TENANT, MONTH).tag());
+				super.invalidate(event);
+			}
+		};
+		versions.set(new ExpenseDataVersions(cache));
+		String previousTag = versions.get().forMonth(TENANT, MONTH).tag();
+		cache.get(TENANT, MONTH, () -> 10.0);
+
+		versions.get().onExpenseChanged(new ExpenseChangedEvent(TENANT, Set.of(MONTH)));
+
+		assertEquals(List.of(previousTag), tagsSeenWhileInvalidating);
+		assertNotEquals(previousTag, versions.get().forMonth(TENANT, MONTH).tag());
+		assertNull(cache.getIfPresent(TENANT, MONTH));
+	}
+}
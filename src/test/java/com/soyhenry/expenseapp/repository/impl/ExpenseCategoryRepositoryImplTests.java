@@ -0,0 +1,49 @@
+package com.soyhenry.expenseapp.repository.impl;
+
+import com.soyhenry.expenseapp.domain.ExpenseCategory;
+import com.soyhenry.expenseapp.repository.ExpenseCategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class ExpenseCategoryRepositoryImplTests {
+
+	@Autowired
+	private ExpenseCategoryRepository expenseCategoryRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void testConcurrentCreatesResolveToSingleCategory() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<ExpenseCategory>> futures = new ArrayList<>();
+		try {
+			for (int i = 0; i < 32; i++) {
+				// Alternamos mayúsculas para verificar que la clave del registro es el nombre en minúsculas
+				String name = i % 2 == 0 ? "Concurrente" : "concurrente";
+				futures.add(executor.submit(() -> expenseCategoryRepository.findOrCreateByName(name)));
+			}
+			Long expectedId = futures.get(0).get().getId();
+			for (Future<ExpenseCategory> future : futures) {
+				assertEquals(expectedId, future.get().getId());
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+		Integer rows = jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM ExpenseCategory WHERE name = 'concurrente'", Integer.class);
+		assertEquals(1, rows);
+	}
+}
@@ -0,0 +1,129 @@
+package com.soyhenry.expenseapp.repository.impl;
+
+import com.soyhenry.expenseapp.domain.Expense;
+import com.soyhenry.expenseapp.dto.response.RollupRebuildResponseDto;
+import com.soyhenry.expenseapp.repository.ExpenseRepository;
+import com.soyhenry.expenseapp.repository.ExpenseRollupRepository;
+import com.soyhenry.expenseapp.tenant.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class ExpenseRollupRepositoryImplTests {
+
+	@Autowired
+	private ExpenseRepository expenseRepository;
+
+	@Autowired
+	private ExpenseRollupRepository expenseRollupRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void testUpdateMovesAmountBetweenMonths() {
+		expenseRepository.insertExpense(new Expense(10000, null, "rollup-test", LocalDate.of(1999, 1, 10)));
+		Long id = jdbcTemplate.queryForObject("SELECT MAX(id) FROM Expense", Long.class);
+
+		// Cambiamos el monto y el mes del gasto: el acumulado de enero queda vacío y el de febrero recibe el nuevo monto
+		expenseRepository.updateExpense(id, new Expense(4000, null, "rollup-test", LocalDate.of(1999, 2, 3)));
+
+		assertEquals(0L, expenseRollupRepository.selectSumByMonth(1999, 1));
+		assertEquals(4000L, expenseRollupRepository.selectSumByMonth(1999, 2));
+	}
+
+	@Test
+	void testDeleteRemovesAmountFromMonth() throws Exception {
+		expenseRepository.insertExpense(new Expense(2500, null, "rollup-test", LocalDate.of(1998, 5, 1)));
+		expenseRepository.insertExpense(new Expense(1500, null, "rollup-test", LocalDate.of(1998, 5, 20)));
+		Long id = jdbcTemplate.queryForObject("SELECT MAX(id) FROM Expense", Long.class);
+
+		expenseRepository.deleteExpense(id);
+
+		assertEquals(2500L, expenseRollupRepository.selectSumByMonth(1998, 5));
+	}
+
+	@Test
+	void testRebuildFixesDriftedBuckets() {
+		expenseRepository.insertExpense(new Expense(6000, null, "rollup-test", LocalDate.of(1997, 7, 7)));
+		// Simulamos un desvío del acumulado respecto de la tabla base
+		jdbcTemplate.update("UPDATE ExpenseRollup SET total_cents = 1 WHERE expense_year = 1997 AND expense_month = 7");
+
+		RollupRebuildResponseDto result = expenseRollupRepository.rebuild();
+
+		assertEquals(1, result.getDriftedBucketCount());
+		assertEquals(6000L, expenseRollupRepository.selectSumByMonth(1997, 7));
+		assertEquals(0, expenseRollupRepository.rebuild().getDriftedBucketCount());
+	}
+
+	// Dos transacciones registran a la vez el primer gasto del mismo bucket: la segunda no puede fallar por la clave
+	// primaria del acumulado. Cada una confirma por su cuenta, así que el test no corre en la transacción de la clase
+	@Test
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	void testConcurrentFirstInsertsIntoSameBucket() throws Exception {
+		String tenant = "rollup-race-tests";
+		try {
+			// La categoría se crea antes, en otro mes, para que la carrera sea sólo por el bucket
+			TenantContext.setTenantId(tenant);
+			expenseRepository.insertExpense(new Expense(100, null, "rollup-race", LocalDate.of(1996, 1, 1)));
+
+			CountDownLatch firstInserted = new CountDownLatch(1);
+			CountDownLatch commitFirst = new CountDownLatch(1);
+			CompletableFuture<Void> first = CompletableFuture.runAsync(() -> insertInTransaction(tenant, 300, () -> {
+				firstInserted.countDown();
+				await(commitFirst);
+			}));
+			assertTrue(firstInserted.await(10, TimeUnit.SECONDS));
+
+			// La segunda llega mientras el bucket de la primera todavía no está confirmado
+			CompletableFuture<Void> second = CompletableFuture.runAsync(() -> insertInTransaction(tenant, 500, () -> { }));
+			Thread.sleep(100);
+			commitFirst.countDown();
+			first.get(10, TimeUnit.SECONDS);
+			second.get(10, TimeUnit.SECONDS);
+
+			assertEquals(800L, expenseRollupRepository.selectSumByMonth(1996, 2));
+		} finally {
+			jdbcTemplate.update("DELETE FROM ExpenseRollup WHERE tenant_id = ?", tenant);
+			jdbcTemplate.update("DELETE FROM Expense WHERE tenant_id = ?", tenant);
+			TenantContext.clear();
+		}
+	}
+
+	private void insertInTransaction(String tenant, long amountCents, Runnable beforeCommit) {
+		TenantContext.setTenantId(tenant);
+		try {
+			transactionTemplate.executeWithoutResult(status -> {
+				expenseRepository.insertExpense(new Expense(amountCents, null, "rollup-race", LocalDate.of(1996, 2, 1)));
+				beforeCommit.run();
+			});
+		} finally {
+			TenantContext.clear();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,270 @@
+package com.soyhenry.expenseapp.service.impl;
+
+import com.soyhenry.expenseapp.dto.ExpenseExportFormat;
+import com.soyhenry.expenseapp.dto.SeriesGranularity;
+import com.soyhenry.expenseapp.dto.request.ExpenseCategoryRequestDto;
+import com.soyhenry.expenseapp.dto.request.ExpenseFilterRequestDto;
+import com.soyhenry.expenseapp.dto.request.ExpenseRequestDto;
+import com.soyhenry.expenseapp.dto.response.BatchExpenseResponseDto;
+import com.soyhenry.expenseapp.dto.response.CategoryExpenseSumResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpenseCategoryUsageResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpensePageCompactResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpensePageResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpenseResponseDto;
+import com.soyhenry.expenseapp.dto.response.ExpenseSeriesDto;
+import com.soyhenry.expenseapp.dto.response.ExpenseSeriesPointDto;
+import com.soyhenry.expenseapp.dto.response.ExpenseSeriesResponseDto;
+import com.soyhenry.expenseapp.exception.ResourceNotFoundExcepcion;
+import com.soyhenry.expenseapp.service.ExpenseService;
+import com.soyhenry.expenseapp.tenant.TenantContext;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Transactional
+class ExpenseServiceImplTests {
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void testCreateExpensesReportsInvalidItemsWithoutFailingTheBatch() {
+		List<ExpenseRequestDto> batch = new ArrayList<>();
+		for (int i = 1; i <= 1200; i++) {
+			batch.add(new ExpenseRequestDto((double) i, new ExpenseCategoryRequestDto(i % 2 == 0 ? "Lote-A" : "lote-b"), "15/06/1996"));
+		}
+		// Un ítem con fecha inválida y otro sin categoría
+		batch.set(10, new ExpenseRequestDto(5.0, new ExpenseCategoryRequestDto("lote-a"), "1996-06-15"));
+		batch.set(20, new ExpenseRequestDto(5.0, null, "15/06/1996"));
+
+		BatchExpenseResponseDto response = expenseService.createExpenses(batch);
+
+		assertEquals(1200, response.getReceived());
+		assertEquals(1198, response.getCreated());
+		assertFalse(response.getItems().get(10).isCreated());
+		assertFalse(response.getItems().get(20).isCreated());
+		assertTrue(response.getItems().get(11).isCreated());
+		// 1..1200 suman 720600; se descuentan los montos 11 y 21 reemplazados por ítems inválidos
+		assertEquals(720600.0 - 11 - 21, expenseService.getExpenseSumByMonth(1996, 6).getTotalAmount());
+	}
+
+	@Test
+	void testExportExpensesWritesOneLinePerExpense() throws Exception {
+		expenseService.createExpense(new ExpenseRequestDto(12.5, new ExpenseCategoryRequestDto("Export, con coma"), "01/02/1995"));
+
+		ByteArrayOutputStream csv = new ByteArrayOutputStream();
+		expenseService.exportExpenses(ExpenseExportFormat.CSV, csv);
+		ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+		expenseService.exportExpenses(ExpenseExportFormat.NDJSON, ndjson);
+
+		String csvText = csv.toString(StandardCharsets.UTF_8);
+		String ndjsonText = ndjson.toString(StandardCharsets.UTF_8);
+		assertTrue(csvText.startsWith("id,amount,category_id,category_name,date\n"));
+		assertTrue(csvText.contains(",12.5,") && csvText.contains(",\"export, con coma\",01/02/1995\n"));
+		assertTrue(ndjsonText.contains("\"amount\":12.5,") && ndjsonText.contains("\"date\":\"01/02/1995\"}\n"));
+		assertEquals(csvText.lines().count() - 1, ndjsonText.lines().count());
+	}
+
+	@Test
+	void testGetExpensesWalksAllPagesInDateOrder() {
+		for (int day = 28; day >= 1; day--) {
+			expenseService.createExpense(new ExpenseRequestDto((double) day, new ExpenseCategoryRequestDto("paginado"), String.format("%02d/02/1994", day)));
+		}
+		// Otra categoría en el mismo rango que el filtro tiene que excluir
+		expenseService.createExpense(new ExpenseRequestDto(99.0, new ExpenseCategoryRequestDto("otra"), "10/02/1994"));
+		ExpenseFilterRequestDto filter = new ExpenseFilterRequestDto("01/02/1994", "28/02/1994", "Paginado", 5.0, null);
+
+		List<Double> amounts = new ArrayList<>();
+		String cursor = null;
+		do {
+			ExpensePageResponseDto page = expenseService.getExpenses(filter, 10, cursor);
+			page.getItems().stream().map(ExpenseResponseDto::getAmount).forEach(amounts::add);
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		assertEquals(24, amounts.size());
+		for (int i = 0; i < amounts.size(); i++) {
+			assertEquals(i + 5.0, amounts.get(i));
+		}
+		assertNull(expenseService.getExpenses(new ExpenseFilterRequestDto(null, null, "inexistente", null, null), 10, null).getNextCursor());
+	}
+
+	@Test
+	void testResponsesCarryTheCategoryIdNotTheExpenseId() {
+		expenseService.createExpense(new ExpenseRequestDto(1.0, new ExpenseCategoryRequestDto("ids-categoria"), "01/03/1991"));
+		expenseService.createExpense(new ExpenseRequestDto(2.0, new ExpenseCategoryRequestDto("ids-categoria"), "02/03/1991"));
+		Long categoryId = jdbcTemplate.queryForObject("SELECT id FROM ExpenseCategory WHERE name = 'ids-categoria'", Long.class);
+		Long expenseId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM Expense WHERE category_id = ?", Long.class, categoryId);
+
+		assertEquals(categoryId, expenseService.getExpenseById(expenseId).getCategoryDto().getId());
+		ExpensePageResponseDto page = expenseService.getExpenses(new ExpenseFilterRequestDto(null, null, "ids-categoria", null, null), 10, null);
+		assertEquals(2, page.getItems().size());
+		page.getItems().forEach(item -> assertEquals(categoryId, item.getCategoryDto().getId()));
+	}
+
+	@Test
+	void testGetExpenseSumByCategoryWithAndWithoutDateRange() {
+		expenseService.createExpense(new ExpenseRequestDto(10.0, new ExpenseCategoryRequestDto("Totales"), "10/01/1993"));
+		expenseService.createExpense(new ExpenseRequestDto(20.0, new ExpenseCategoryRequestDto("totales"), "10/02/1993"));
+		expenseService.createExpense(new ExpenseRequestDto(30.0, new ExpenseCategoryRequestDto("totales"), "10/03/1993"));
+
+		CategoryExpenseSumResponseDto all = expenseService.getExpenseSumByCategory("TOTALES", null, null);
+		CategoryExpenseSumResponseDto range = expenseService.getExpenseSumByCategory("totales", "01/02/1993", "31/03/1993");
+
+		assertEquals(60.0, all.getTotalAmount());
+		assertEquals(3, all.getExpenseCount());
+		assertEquals(50.0, range.getTotalAmount());
+		assertEquals(2, range.getExpenseCount());
+		assertThrows(ResourceNotFoundExcepcion.class, () -> expenseService.getExpenseSumByCategory("inexistente", null, null));
+	}
+
+	@Test
+	void testCategoryListingSeesCategoriesCreatedAfterItWasCached() {
+		expenseService.getExpenseCategoryNames();
+		expenseService.createExpense(new ExpenseRequestDto(1.0, new ExpenseCategoryRequestDto("Nueva-Categoria"), "01/01/1992"));
+		expenseService.createExpense(new ExpenseRequestDto(2.0, new ExpenseCategoryRequestDto("nueva-categoria"), "02/01/1992"));
+		// El listado cacheado se descarta recién cuando la transacción que creó la categoría confirma
+		TestTransaction.flagForCommit();
+		TestTransaction.end();
+
+		assertTrue(expenseService.getExpenseCategoryNames().contains("nueva-categoria"));
+		ExpenseCategoryUsageResponseDto usage = expenseService.getExpenseCategoryUsage().stream()
+				.filter(category -> category.getName().equals("nueva-categoria"))
+				.findFirst()
+				.orElseThrow();
+		assertEquals(2, usage.getExpenseCount());
+	}
+
+	@Test
+	void testMonthlySumCacheIsInvalidatedOnlyForTouchedMonths() {
+		expenseService.createExpense(new ExpenseRequestDto(10.0, new ExpenseCategoryRequestDto("cache-mensual"), "05/01/1988"));
+		expenseService.createExpense(new ExpenseRequestDto(20.0, new ExpenseCategoryRequestDto("cache-mensual"), "05/02/1988"));
+		TestTransaction.flagForCommit();
+		TestTransaction.end();
+
+		assertEquals(10.0, expenseService.getExpenseSumByMonth(1988, 1).getTotalAmount());
+		assertEquals(20.0, expenseService.getExpenseSumByMonth(1988, 2).getTotalAmount());
+
+		// Un cambio directo en la BD no avisa a la caché: febrero se sigue leyendo de memoria.
+		// Se revierte al final para no dejar acumulados desviados en la base compartida
+		jdbcTemplate.update("UPDATE ExpenseRollup SET total_cents = 99900 WHERE expense_year = 1988 AND expense_month = 2");
+		try {
+			// Un alta en enero invalida sólo enero
+			expenseService.createExpense(new ExpenseRequestDto(5.0, new ExpenseCategoryRequestDto("cache-mensual"), "06/01/1988"));
+
+			assertEquals(15.0, expenseService.getExpenseSumByMonth(1988, 1).getTotalAmount());
+			assertEquals(20.0, expenseService.getExpenseSumByMonth(1988, 2).getTotalAmount());
+		} finally {
+			jdbcTemplate.update("UPDATE ExpenseRollup SET total_cents = 2000 WHERE expense_year = 1988 AND expense_month = 2");
+		}
+	}
+
+	@Test
+	void testExpenseSeriesFillsEmptyPeriodsWithZero() {
+		expenseService.createExpense(new ExpenseRequestDto(10.0, new ExpenseCategoryRequestDto("serie-a"), "03/01/1987"));
+		expenseService.createExpense(new ExpenseRequestDto(5.0, new ExpenseCategoryRequestDto("serie-b"), "20/01/1987"));
+		expenseService.createExpense(new ExpenseRequestDto(7.0, new ExpenseCategoryRequestDto("serie-a"), "15/03/1987"));
+
+		// Meses completos: se resuelve con los acumulados mensuales
+		ExpenseSeriesResponseDto byMonth = expenseService.getExpenseSeries("01/01/1987", "30/04/1987", SeriesGranularity.MONTH, false);
+		List<ExpenseSeriesPointDto> points = byMonth.getSeries().get(0).getPoints();
+		assertEquals(4, points.size());
+		assertEquals(15.0, points.get(0).getTotalAmount());
+		assertEquals(0.0, points.get(1).getTotalAmount());
+		assertEquals(7.0, points.get(2).getTotalAmount());
+		assertEquals("01/04/1987", points.get(3).getPeriod());
+
+		// Semanas desde el lunes 29/12/1986, agrupadas por categoría a partir de los totales por día
+		ExpenseSeriesResponseDto byWeek = expenseService.getExpenseSeries("01/01/1987", "31/01/1987", SeriesGranularity.WEEK, true);
+		assertEquals(2, byWeek.getSeries().size());
+		ExpenseSeriesDto serieA = byWeek.getSeries().get(0);
+		assertEquals("serie-a", serieA.getCategory());
+		assertEquals(5, serieA.getPoints().size());
+		assertEquals("29/12/1986", serieA.getPoints().get(0).getPeriod());
+		assertEquals(10.0, serieA.getPoints().get(0).getTotalAmount());
+		assertEquals(5.0, byWeek.getSeries().get(1).getPoints().get(3).getTotalAmount());
+	}
+
+	@Test
+	void testTenantsOnlySeeTheirOwnExpenses() {
+		try {
+			TenantContext.setTenantId("cuenta-a");
+			expenseService.createExpense(new ExpenseRequestDto(10.0, new ExpenseCategoryRequestDto("compartida"), "01/05/1985"));
+			TenantContext.setTenantId("cuenta-b");
+			expenseService.createExpense(new ExpenseRequestDto(3.0, new ExpenseCategoryRequestDto("compartida"), "02/05/1985"));
+
+			assertEquals(3.0, expenseService.getExpenseSumByMonth(1985, 5).getTotalAmount());
+			assertEquals(3.0, expenseService.getTotalExpenseSum());
+			ExpenseFilterRequestDto filter = new ExpenseFilterRequestDto();
+			filter.setCategory("compartida");
+			assertEquals(1, expenseService.getExpenses(filter, 10, null).getItems().size());
+
+			TenantContext.setTenantId("cuenta-a");
+			assertEquals(10.0, expenseService.getExpenseSumByMonth(1985, 5).getTotalAmount());
+			assertEquals(1, expenseService.getExpenseSumByCategory("compartida", null, null).getExpenseCount());
+		} finally {
+			TenantContext.clear();
+		}
+		// La cuenta por defecto no ve los gastos de las otras
+		assertEquals(0.0, expenseService.getExpenseSumByMonth(1985, 5).getTotalAmount());
+		assertFalse(expenseService.getExpenseCategoryNames().contains("compartida"));
+	}
+
+	@Test
+	void testCompactPageSendsEachCategoryOnce() {
+		expenseService.createExpense(new ExpenseRequestDto(1.0, new ExpenseCategoryRequestDto("compacta-a"), "01/07/1984"));
+		expenseService.createExpense(new ExpenseRequestDto(2.0, new ExpenseCategoryRequestDto("compacta-b"), "02/07/1984"));
+		expenseService.createExpense(new ExpenseRequestDto(3.0, new ExpenseCategoryRequestDto("compacta-a"), "03/07/1984"));
+
+		ExpenseFilterRequestDto filter = new ExpenseFilterRequestDto();
+		filter.setFrom("01/07/1984");
+		filter.setTo("31/07/1984");
+		ExpensePageCompactResponseDto page = expenseService.getExpensesCompact(filter, 2, null);
+
+		assertEquals(List.of("compacta-a", "compacta-b"), page.getCategoryNames());
+		assertEquals(2, page.getIds().length);
+		assertEquals(2.0, page.getAmounts()[1]);
+		assertEquals(1, page.getCategoryIndexes()[1]);
+		assertEquals(LocalDate.of(1984, 7, 2), LocalDate.ofEpochDay(page.getDates()[1]));
+
+		// El cursor es el mismo que en el listado JSON
+		ExpensePageCompactResponseDto next = expenseService.getExpensesCompact(filter, 2, page.getNextCursor());
+		assertEquals(List.of("compacta-a"), next.getCategoryNames());
+		assertEquals(0, next.getCategoryIndexes()[0]);
+		assertNull(next.getNextCursor());
+	}
+
+	@Test
+	void testCentAmountsAddUpExactly() {
+		// Diez gastos de 0,10 suman 0,9999999999999999 con doubles; en centavos dan 1 exacto
+		for (int day = 1; day <= 10; day++) {
+			expenseService.createExpense(new ExpenseRequestDto(0.1, new ExpenseCategoryRequestDto("centavos"), String.format("%02d/03/1981", day)));
+		}
+		// 0,005 se redondea hacia arriba al guardarse
+		expenseService.createExpense(new ExpenseRequestDto(0.005, new ExpenseCategoryRequestDto("centavos"), "20/03/1981"));
+
+		assertEquals(1.01, expenseService.getExpenseSumByMonth(1981, 3).getTotalAmount());
+		assertEquals(1.01, expenseService.getExpenseSumByCategory("centavos", null, null).getTotalAmount());
+		ExpenseSeriesResponseDto series = expenseService.getExpenseSeries("01/03/1981", "31/03/1981", SeriesGranularity.MONTH, false);
+		assertEquals(1.01, series.getSeries().get(0).getPoints().get(0).getTotalAmount());
+	}
+}
@@ -0,0 +1,113 @@
+package com.soyhenry.expenseapp.service.impl;
+
+import com.soyhenry.expenseapp.domain.Money;
+import com.soyhenry.expenseapp.dto.IncomeDto;
+import com.soyhenry.expenseapp.dto.SpecialExpenseDto;
+import com.soyhenry.expenseapp.dto.request.ExpenseCategoryRequestDto;
+import com.soyhenry.expenseapp.dto.request.ExpenseRequestDto;
+import com.soyhenry.expenseapp.dto.response.BalanceResponseDto;
+import com.soyhenry.expenseapp.exception.BadRequestException;
+import com.soyhenry.expenseapp.service.ExpenseService;
+import com.soyhenry.expenseapp.service.IncomeService;
+import com.soyhenry.expenseapp.service.SpecialExpenseService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@Transactional
+class IncomeServiceImplTests {
+
+	@Autowired
+	private IncomeService incomeService;
+
+	@Autowired
+	private ExpenseService expenseService;
+
+	@Autowired
+	private SpecialExpenseService specialExpenseService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void testBalanceCombinesPartialDaysAndWholeMonths() {
+		// Un ingreso y un gasto cada tres días durante 1982-1983 para cubrir meses parciales, enteros y cambio de año
+		for (LocalDate day = LocalDate.of(1982, 1, 1); day.getYear() < 1984; day = day.plusDays(3)) {
+			String date = String.format("%02d/%02d/%d", day.getDayOfMonth(), day.getMonthValue(), day.getYear());
+			incomeService.createIncome(new IncomeDto((double) day.getDayOfMonth() * 10, "Sueldo", date));
+			expenseService.createExpense(new ExpenseRequestDto((double) day.getMonthValue(), new ExpenseCategoryRequestDto("balance-1983"), date));
+		}
+
+		assertBalance("17/02/1982", "17/02/1982");
+		assertBalance("10/03/1982", "20/03/1982");
+		assertBalance("01/04/1982", "30/04/1982");
+		assertBalance("15/05/1982", "14/11/1983");
+		assertBalance("01/01/1982", "31/12/1983");
+		assertBalance("28/12/1982", "31/01/1983");
+	}
+
+	@Test
+	void testBalanceIsExactInCents() {
+		// Sumando doubles, diez ingresos de 0.1 menos un gasto de 0.3 no darían exactamente 0.7
+		for (int i = 0; i < 10; i++) {
+			incomeService.createIncome(new IncomeDto(0.1, "Propina", "10/06/1981"));
+		}
+		expenseService.createExpense(new ExpenseRequestDto(0.3, new ExpenseCategoryRequestDto("balance-1981"), "20/06/1981"));
+
+		// Un mes entero (sumas prefijas) y un tramo de días (suma por rango)
+		for (String[] period : new String[][]{{"01/06/1981", "30/06/1981"}, {"05/06/1981", "25/06/1981"}}) {
+			BalanceResponseDto balance = incomeService.getBalance(period[0], period[1]);
+			assertEquals(1.0, balance.getTotalIncome());
+			assertEquals(0.3, balance.getTotalExpense());
+			assertEquals(0.7, balance.getBalance());
+		}
+	}
+
+	@Test
+	void testBalanceIncludesSpecialExpenses() {
+		incomeService.createIncome(new IncomeDto(1000.0, "Sueldo", "01/09/1980"));
+		expenseService.createExpense(new ExpenseRequestDto(200.0, new ExpenseCategoryRequestDto("balance-1980"), "10/09/1980"));
+		specialExpenseService.createSpecialExpense(
+				new SpecialExpenseDto(150.25, new ExpenseCategoryRequestDto("balance-1980"), "20/09/1980", "Arreglo del techo"));
+
+		// Tanto con el mes entero como con un tramo de días
+		for (String[] period : new String[][]{{"01/09/1980", "30/09/1980"}, {"05/09/1980", "25/09/1980"}}) {
+			BalanceResponseDto balance = incomeService.getBalance(period[0], period[1]);
+			assertEquals(350.25, balance.getTotalExpense());
+		}
+		assertEquals(649.75, incomeService.getBalance("01/09/1980", "30/09/1980").getBalance());
+	}
+
+	@Test
+	void testBalanceRejectsInvertedRange() {
+		assertThrows(BadRequestException.class, () -> incomeService.getBalance("02/01/1983", "01/01/1983"));
+	}
+
+	// Compara el balance con la suma directa de las filas del período
+	private void assertBalance(String from, String to) {
+		BalanceResponseDto balance = incomeService.getBalance(from, to);
+		LocalDate fromDate = parse(from);
+		LocalDate toDate = parse(to);
+		long income = jdbcTemplate.queryForObject(
+				"SELECT COALESCE(SUM(amount_cents), 0) FROM Income WHERE date BETWEEN ? AND ?", Long.class, fromDate, toDate);
+		long expense = jdbcTemplate.queryForObject(
+				"SELECT COALESCE(SUM(amount_cents), 0) FROM Expense WHERE date BETWEEN ? AND ?", Long.class, fromDate, toDate);
+
+		assertEquals(Money.toAmount(income), balance.getTotalIncome());
+		assertEquals(Money.toAmount(expense), balance.getTotalExpense());
+		assertEquals(Money.toAmount(income - expense), balance.getBalance());
+	}
+
+	private LocalDate parse(String date) {
+		String[] parts = date.split("/");
+		return LocalDate.of(Integer.parseInt(parts[2]), Integer.parseInt(parts[1]), Integer.parseInt(parts[0]));
+	}
+}
@@ -0,0 +1,134 @@
+package com.soyhenry.expenseapp.service.impl;
+
+import com.soyhenry.expenseapp.controller.ExpenseController;
+import com.soyhenry.expenseapp.dto.SpecialExpenseDto;
+import com.soyhenry.expenseapp.dto.request.ExpenseCategoryRequestDto;
+import com.soyhenry.expenseapp.dto.response.SpecialExpenseResponseDto;
+import com.soyhenry.expenseapp.dto.response.SpecialExpenseSearchResponseDto;
+import com.soyhenry.expenseapp.exception.BadRequestException;
+import com.soyhenry.expenseapp.service.SpecialExpenseService;
+import com.soyhenry.expenseapp.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// El índice de búsqueda se actualiza cuando cada escritura hace commit, así que los tests no son transaccionales;
+// usan una cuenta propia que se vacía al terminar
+@SpringBootTest
+class SpecialExpenseServiceImplTests {
+	private static final String TENANT = "special-search-tests";
+
+	@Autowired
+	private SpecialExpenseService specialExpenseService;
+
+	@Autowired
+	private ExpenseController expenseController;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setTenant() {
+		TenantContext.setTenantId(TENANT);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		jdbcTemplate.update("DELETE FROM SpecialExpense WHERE tenant_id = ?", TENANT);
+		TenantContext.clear();
+	}
+
+	@Test
+	void testSearchMatchesReasonAndCategoryTermsAndFollowsWrites() {
+		Long dentist = create("salud", "Urgencia en el dentista");
+		Long car = create("auto", "Reparación del auto después del choque");
+		Long vet = create("mascotas", "Urgencia veterinaria");
+
+		// El índice de la cuenta se carga de la BD en la primera búsqueda
+		assertEquals(List.of(vet, dentist), ids(specialExpenseService.searchSpecialExpenses("urgencia", 20)));
+		// Sin distinguir tildes ni mayúsculas, con prefijos y sobre el nombre de la categoría
+		assertEquals(List.of(car), ids(specialExpenseService.searchSpecialExpenses("REPARACION cho", 20)));
+		assertEquals(List.of(dentist), ids(specialExpenseService.searchSpecialExpenses("urgencia salud", 20)));
+
+		// Con el índice ya cargado, las escrituras confirmadas se reflejan en la búsqueda
+		Long boiler = create("hogar", "Urgencia: se rompió el calefón");
+		SpecialExpenseSearchResponseDto limited = specialExpenseService.searchSpecialExpenses("urgencia", 2);
+		assertEquals(3, limited.getTotalMatches());
+		assertEquals(List.of(boiler, vet), ids(limited));
+
+		specialExpenseService.updateSpecialExpense(vet, new SpecialExpenseDto(80.0, new ExpenseCategoryRequestDto("mascotas"), "02/02/2020", "Vacunas anuales"));
+		specialExpenseService.deleteSpecialExpense(dentist);
+		assertEquals(List.of(boiler), ids(specialExpenseService.searchSpecialExpenses("urgencia", 20)));
+		assertEquals(List.of(vet), ids(specialExpenseService.searchSpecialExpenses("vacunas", 20)));
+
+		// Otra cuenta no ve estos gastos
+		TenantContext.setTenantId("special-search-other");
+		assertEquals(0, specialExpenseService.searchSpecialExpenses("urgencia", 20).getTotalMatches());
+	}
+
+	@Test
+	void testNewCategoryChangesCategoriesETag() {
+		ServletWebRequest first = getRequest(null);
+		expenseController.getExpenseCategories(first);
+		String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+		// Sin altas el ETag sigue vigente
+		ServletWebRequest unchanged = getRequest(etag);
+		expenseController.getExpenseCategories(unchanged);
+		assertEquals(HttpStatus.NOT_MODIFIED.value(), unchanged.getResponse().getStatus());
+
+		// La categoría nueva llega sólo por el gasto especial, sin pasar por los gastos
+		create("etag-categoria-especial", "Categoría creada desde un gasto especial");
+		ResponseEntity<Set<String>> response = expenseController.getExpenseCategories(getRequest(etag));
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		assertTrue(response.getBody().contains("etag-categoria-especial"));
+	}
+
+	@Test
+	void testSearchRejectsQueriesWithoutTerms() {
+		assertThrows(BadRequestException.class, () -> specialExpenseService.searchSpecialExpenses(" ¿a? ", 20));
+	}
+
+	@Test
+	void testCreateRejectsMissingDateAndAmountLikeTheOtherServices() {
+		BadRequestException noDate = assertThrows(BadRequestException.class, () -> specialExpenseService.createSpecialExpense(
+				new SpecialExpenseDto(100.0, new ExpenseCategoryRequestDto("salud"), null, "Sin fecha")));
+		assertEquals("Fecha requerida. El formato esperado es dd/MM/yyyy", noDate.getMessage());
+		BadRequestException noAmount = assertThrows(BadRequestException.class, () -> specialExpenseService.createSpecialExpense(
+				new SpecialExpenseDto(null, new ExpenseCategoryRequestDto("salud"), "01/02/2020", "Sin monto")));
+		assertEquals("Monto requerido", noAmount.getMessage());
+	}
+
+	private Long create(String category, String reason) {
+		return specialExpenseService.createSpecialExpense(
+				new SpecialExpenseDto(100.0, new ExpenseCategoryRequestDto(category), "01/02/2020", reason));
+	}
+
+	private ServletWebRequest getRequest(String ifNoneMatch) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/expense/categories");
+		if (ifNoneMatch != null) {
+			request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+		}
+		return new ServletWebRequest(request, new MockHttpServletResponse());
+	}
+
+	private List<Long> ids(SpecialExpenseSearchResponseDto response) {
+		return response.getItems().stream().map(SpecialExpenseResponseDto::getId).toList();
+	}
+}
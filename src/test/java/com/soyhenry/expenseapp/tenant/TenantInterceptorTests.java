@@ -0,0 +1,37 @@
+package com.soyhenry.expenseapp.tenant;
+
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TenantInterceptorTests {
+	private final TenantInterceptor tenantInterceptor = new TenantInterceptor();
+
+	@AfterEach
+	void clearTenant() {
+		TenantContext.clear();
+	}
+
+	@Test
+	void testAsyncRedispatchDoesNotRepeatVary() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/expense/total-sum");
+		request.addHeader(TenantInterceptor.TENANT_HEADER, "vary-tests");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		tenantInterceptor.preHandle(request, response, null);
+		tenantInterceptor.afterConcurrentHandlingStarted(request, response, null);
+		// El redespacho vuelve a fijar la cuenta pero no agrega otro Vary a la misma respuesta
+		request.setDispatcherType(DispatcherType.ASYNC);
+		tenantInterceptor.preHandle(request, response, null);
+
+		assertEquals(List.of(TenantInterceptor.TENANT_HEADER), response.getHeaders(HttpHeaders.VARY));
+		assertEquals("vary-tests", TenantContext.getTenantId());
+	}
+}